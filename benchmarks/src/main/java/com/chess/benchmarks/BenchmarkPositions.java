@@ -0,0 +1,45 @@
+package com.chess.benchmarks;
+
+/**
+ * Fixed corpus of positions shared by all benchmarks, grouped by game phase
+ */
+public final class BenchmarkPositions {
+
+    public static final String[] OPENING = {
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+        "rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq e6 0 2",
+        "r1bqkbnr/pppp1ppp/2n5/1B2p3/4P3/5N2/PPPP1PPP/RNBQK2R b KQkq - 3 3",
+        "rnbqkb1r/pp2pppp/3p1n2/8/3NP3/8/PPP2PPP/RNBQKB1R w KQkq - 1 5",
+    };
+
+    public static final String[] MIDDLEGAME = {
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+        "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+        "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+    };
+
+    public static final String[] ENDGAME = {
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        "8/8/8/4k3/8/8/4P3/4K3 w - - 0 1",
+        "8/8/4k3/8/8/8/8/R3K3 w Q - 0 1",
+        "6k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - 0 1",
+    };
+
+    private BenchmarkPositions() {
+    }
+
+    /**
+     * Gets the positions of one phase
+     * @param phase "opening", "middlegame" or "endgame"
+     * @return The FEN strings of that phase
+     */
+    public static String[] forPhase(String phase) {
+        switch (phase) {
+            case "opening": return OPENING;
+            case "middlegame": return MIDDLEGAME;
+            case "endgame": return ENDGAME;
+            default: throw new IllegalArgumentException("Unknown phase: " + phase);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.chess.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.chess.engine.Evaluator;
+import com.chess.io.FenFileLoader;
+import com.chess.io.PositionConsumer;
+
+/**
+ * Throughput of the memory-mapped bulk loader, one operation = loading a file
+ * holding every benchmark position many times over
+ *
+ * The "positions" counter is the number of positions loaded per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkLoadBenchmark {
+
+    private static final int COPIES = 20_000;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    // "count" only parses, "evaluate" also runs the positional evaluation on every position
+    @Param({"count", "evaluate"})
+    public String consumer;
+
+    /**
+     * Per-iteration position totals, reported by JMH as a rate
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class PositionCounter {
+        public long positions;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            positions = 0;
+        }
+    }
+
+    private Path file;
+    private FenFileLoader loader;
+    private PositionConsumer action;
+    private final LongAdder checksum = new LongAdder();
+
+    @Setup
+    public void setup() throws IOException {
+        file = Files.createTempFile("bulk-load", ".fen");
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < COPIES; i++) {
+                for (String phase : new String[] {"opening", "middlegame", "endgame"}) {
+                    for (String fen : BenchmarkPositions.forPhase(phase)) {
+                        writer.write(fen);
+                        writer.write('\n');
+                    }
+                }
+            }
+        }
+        loader = new FenFileLoader(threads);
+
+        if (consumer.equals("count")) {
+            action = (position, offset) -> checksum.add(position.getKey());
+        } else if (consumer.equals("evaluate")) {
+            Evaluator evaluator = Evaluator.forName("positional");
+            action = (position, offset) -> checksum.add(evaluator.evaluate(position));
+        } else {
+            throw new IllegalArgumentException("Unknown consumer: " + consumer);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long load(PositionCounter counter) throws IOException {
+        FenFileLoader.Result result = loader.load(file, action);
+        counter.positions += result.getPositions();
+        return checksum.sum();
+    }
+}
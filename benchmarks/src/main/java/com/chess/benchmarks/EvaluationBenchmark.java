@@ -0,0 +1,81 @@
+package com.chess.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.chess.board.Board;
+import com.chess.board.Position;
+import com.chess.board.TranslateFen;
+import com.chess.engine.Engine;
+import com.chess.engine.Evaluator;
+
+/**
+ * Throughput of static evaluation, one operation = the whole corpus of a phase
+ *
+ * evaluatePosition converts each Board first; evaluateAll scores the corpus
+ * as prebuilt positions with the batch API.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationBenchmark {
+
+    @Param({"opening", "middlegame", "endgame"})
+    public String phase;
+
+    @Param({"material", "pst", "positional"})
+    public String evaluator;
+
+    private Board[] boards;
+    private Position[] positions;
+    private int[] scores;
+    private Engine engine;
+    private Evaluator batchEvaluator;
+
+    @Setup
+    public void setup() {
+        String[] fens = BenchmarkPositions.forPhase(phase);
+        boards = new Board[fens.length];
+        for (int i = 0; i < fens.length; i++) {
+            boards[i] = TranslateFen.translateFen(fens[i]);
+        }
+        engine = new Engine(boards[0]);
+        engine.setEvaluator(Evaluator.forName(evaluator));
+
+        positions = new Position[fens.length];
+        for (int i = 0; i < fens.length; i++) {
+            positions[i] = Position.fromFen(fens[i]);
+        }
+        scores = new int[fens.length];
+        batchEvaluator = Evaluator.forName(evaluator);
+    }
+
+    @Benchmark
+    public double evaluatePosition() {
+        double sum = 0;
+        for (Board board : boards) {
+            sum += engine.evaluatePosition(board);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int[] evaluateAll() {
+        batchEvaluator.evaluateAll(positions, scores);
+        return scores;
+    }
+}
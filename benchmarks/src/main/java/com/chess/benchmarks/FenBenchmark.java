@@ -0,0 +1,114 @@
+package com.chess.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.chess.board.FenCodec;
+import com.chess.board.PackedPosition;
+import com.chess.board.Position;
+import com.chess.board.TranslateFen;
+
+/**
+ * Throughput of FEN parsing and serialization, and of the PackedPosition binary
+ * encoding for comparison; one operation = the whole corpus of a phase
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FenBenchmark {
+
+    @Param({"opening", "middlegame", "endgame"})
+    public String phase;
+
+    private String[] fens;
+    private TranslateFen.FenData[] parsed;
+    private Position[] positions;
+    private final FenCodec codec = new FenCodec();
+    private final Position scratch = new Position();
+    private final byte[] buffer = new byte[FenCodec.MAX_LENGTH];
+    private ByteBuffer packed;
+
+    @Setup
+    public void setup() {
+        fens = BenchmarkPositions.forPhase(phase);
+        parsed = new TranslateFen.FenData[fens.length];
+        for (int i = 0; i < fens.length; i++) {
+            parsed[i] = TranslateFen.translateFenComplete(fens[i]);
+        }
+        positions = new Position[fens.length];
+        for (int i = 0; i < fens.length; i++) {
+            positions[i] = Position.fromFen(fens[i]);
+        }
+        packed = ByteBuffer.allocate(fens.length * PackedPosition.SIZE);
+        for (int i = 0; i < fens.length; i++) {
+            PackedPosition.encode(positions[i], packed, i * PackedPosition.SIZE);
+        }
+    }
+
+    @Benchmark
+    public void translateFenComplete(Blackhole blackhole) {
+        for (String fen : fens) {
+            blackhole.consume(TranslateFen.translateFenComplete(fen));
+        }
+    }
+
+    @Benchmark
+    public void fenDataToString(Blackhole blackhole) {
+        for (TranslateFen.FenData fenData : parsed) {
+            blackhole.consume(TranslateFen.fenDataToString(fenData));
+        }
+    }
+
+    @Benchmark
+    public long codecParse() {
+        long keys = 0;
+        for (String fen : fens) {
+            codec.parse(fen, scratch);
+            keys ^= scratch.getKey();
+        }
+        return keys;
+    }
+
+    @Benchmark
+    public int codecWrite() {
+        int length = 0;
+        for (Position position : positions) {
+            length += codec.write(position, buffer, 0);
+        }
+        return length;
+    }
+
+    @Benchmark
+    public long packedDecode() {
+        long keys = 0;
+        for (int i = 0; i < positions.length; i++) {
+            PackedPosition.decode(packed, i * PackedPosition.SIZE, scratch);
+            keys ^= scratch.getKey();
+        }
+        return keys;
+    }
+
+    @Benchmark
+    public int packedEncode() {
+        for (int i = 0; i < positions.length; i++) {
+            PackedPosition.encode(positions[i], packed, i * PackedPosition.SIZE);
+        }
+        return packed.get(0);
+    }
+}
@@ -0,0 +1,116 @@
+package com.chess.benchmarks;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.chess.board.MoveGenerator;
+import com.chess.board.MoveList;
+import com.chess.board.Position;
+import com.chess.io.PgnGame;
+import com.chess.io.PgnReader;
+import com.chess.io.PgnWriter;
+
+/**
+ * PGN import and export, one operation = a corpus of random legal games of up to 120 plies
+ *
+ * The "games" counter is the number of games read or written per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PgnBenchmark {
+
+    private static final int GAMES = 500;
+    private static final int MAX_PLIES = 120;
+
+    /**
+     * Per-iteration game totals, reported by JMH as a rate
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class GameCounter {
+        public long games;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            games = 0;
+        }
+    }
+
+    private String pgn;
+    private PgnGame[] corpus;
+    private final PgnGame game = new PgnGame();
+    private final StringBuilder output = new StringBuilder();
+
+    @Setup
+    public void setup() throws IOException {
+        // Fixed seed: every run reads the same games
+        Random random = new Random(42);
+        MoveList moves = new MoveList();
+        corpus = new PgnGame[GAMES];
+        for (int i = 0; i < GAMES; i++) {
+            PgnGame game = new PgnGame();
+            game.setTag("Event", "Benchmark game " + i);
+            Position position = game.getStartPosition();
+            for (int ply = 0; ply < MAX_PLIES; ply++) {
+                moves.clear();
+                MoveGenerator.generateLegalMoves(position, moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                int move = moves.get(random.nextInt(moves.size()));
+                position.makeMove(move);
+                game.addMove(move);
+            }
+            corpus[i] = game;
+        }
+
+        StringBuilder text = new StringBuilder();
+        PgnWriter writer = new PgnWriter(text);
+        for (PgnGame game : corpus) {
+            writer.write(game);
+        }
+        pgn = text.toString();
+    }
+
+    @Benchmark
+    public int read(GameCounter counter) throws IOException {
+        int plies = 0;
+        try (PgnReader reader = new PgnReader(new StringReader(pgn))) {
+            while (reader.readGame(game)) {
+                plies += game.getMoveCount();
+                counter.games++;
+            }
+        }
+        return plies;
+    }
+
+    @Benchmark
+    public int write(GameCounter counter) throws IOException {
+        output.setLength(0);
+        PgnWriter writer = new PgnWriter(output);
+        for (PgnGame game : corpus) {
+            writer.write(game);
+            counter.games++;
+        }
+        return output.length();
+    }
+}
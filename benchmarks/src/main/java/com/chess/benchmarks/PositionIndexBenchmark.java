@@ -0,0 +1,121 @@
+package com.chess.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.chess.board.MoveGenerator;
+import com.chess.board.MoveList;
+import com.chess.board.Position;
+import com.chess.board.TranslateFen;
+import com.chess.io.PositionIndex;
+
+/**
+ * Position deduplication, one operation = indexing every position of a corpus of random games
+ *
+ * The games share their openings (the first plies pick among a few moves), so
+ * early positions repeat many times, as in real collections. The index starts
+ * small and grows while indexing. With storage=mapped the memory limit is 0 and
+ * the table lives in a memory-mapped spill file from the start.
+ * The "positions" counter is the number of positions indexed per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PositionIndexBenchmark {
+
+    private static final int GAMES = 2000;
+    private static final int MAX_PLIES = 80;
+    private static final int OPENING_PLIES = 10;
+    private static final int OPENING_CHOICES = 3;
+
+    /**
+     * Per-iteration position totals, reported by JMH as a rate
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class PositionCounter {
+        public long positions;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            positions = 0;
+        }
+    }
+
+    @Param({"memory", "mapped"})
+    public String storage;
+
+    private long[] keys;
+    private int[] results;
+    private Path spillDirectory;
+
+    @Setup
+    public void setup() throws IOException {
+        spillDirectory = Files.createTempDirectory("position-index-bench");
+
+        // Fixed seed: every run indexes the same games
+        Random random = new Random(42);
+        MoveList moves = new MoveList();
+        keys = new long[GAMES * (MAX_PLIES + 1)];
+        results = new int[keys.length];
+        int count = 0;
+        for (int i = 0; i < GAMES; i++) {
+            int result = 1 + random.nextInt(3);
+            Position position = Position.fromFen(TranslateFen.getStartingPositionFen());
+            keys[count] = position.getKey();
+            results[count++] = result;
+            for (int ply = 0; ply < MAX_PLIES; ply++) {
+                moves.clear();
+                MoveGenerator.generateLegalMoves(position, moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                int choices = ply < OPENING_PLIES ? Math.min(OPENING_CHOICES, moves.size()) : moves.size();
+                position.makeMove(moves.get(random.nextInt(choices)));
+                keys[count] = position.getKey();
+                results[count++] = result;
+            }
+        }
+        keys = Arrays.copyOf(keys, count);
+        results = Arrays.copyOf(results, count);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(spillDirectory);
+    }
+
+    @Benchmark
+    public long index(PositionCounter counter) throws IOException {
+        long limit = storage.equals("mapped") ? 0 : Long.MAX_VALUE;
+        try (PositionIndex index = new PositionIndex(0, limit, limit == 0 ? spillDirectory : null)) {
+            for (int i = 0; i < keys.length; i++) {
+                index.add(keys[i], results[i]);
+            }
+            counter.positions += keys.length;
+            return index.size();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.chess.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.chess.board.Position;
+import com.chess.engine.Engine;
+import com.chess.engine.SearchLimits;
+import com.chess.engine.SearchOptions;
+import com.chess.engine.SearchResult;
+
+/**
+ * Effect of each selective search technique, one operation = a single-threaded
+ * fixed-depth search of every middlegame position from an empty transposition table
+ *
+ * "all" and "none" bracket the range; every other value turns off a single
+ * technique, so its cost is the difference to "all". The "nodes" counter shows
+ * how much of the time to depth comes from a smaller tree.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PruningBenchmark {
+
+    @Param({"all", "no-null-move", "no-lmr", "no-futility", "no-reverse-futility", "no-aspiration", "none"})
+    public String techniques;
+
+    @Param({"6"})
+    public int depth;
+
+    /**
+     * Per-iteration node totals, reported by JMH as a rate
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class NodeCounter {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    private Position[] positions;
+    private Engine engine;
+    private SearchLimits limits;
+
+    @Setup
+    public void setup() {
+        String[] fens = BenchmarkPositions.forPhase("middlegame");
+        positions = new Position[fens.length];
+        for (int i = 0; i < fens.length; i++) {
+            positions[i] = Position.fromFen(fens[i]);
+        }
+        engine = new Engine();
+        engine.setSearchOptions(options(techniques));
+        limits = SearchLimits.depth(depth);
+    }
+
+    private static SearchOptions options(String techniques) {
+        SearchOptions options = new SearchOptions();
+        switch (techniques) {
+            case "all":
+                break;
+            case "none":
+                options = SearchOptions.none();
+                break;
+            case "no-null-move":
+                options.setNullMove(false);
+                break;
+            case "no-lmr":
+                options.setLateMoveReductions(false);
+                break;
+            case "no-futility":
+                options.setFutilityPruning(false);
+                break;
+            case "no-reverse-futility":
+                options.setReverseFutilityPruning(false);
+                break;
+            case "no-aspiration":
+                options.setAspirationWindows(false);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown technique set: " + techniques);
+        }
+        return options;
+    }
+
+    @Setup(Level.Invocation)
+    public void clearHash() {
+        engine.getTranspositionTable().clear();
+    }
+
+    @Benchmark
+    public int search(NodeCounter counter) {
+        int moves = 0;
+        for (Position position : positions) {
+            SearchResult result = engine.bestMove(position, limits);
+            counter.nodes += result.getNodes();
+            moves += result.getBestMove();
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,125 @@
+package com.chess.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.chess.board.Board;
+import com.chess.board.Move;
+import com.chess.board.MoveGenerator;
+import com.chess.board.MoveList;
+import com.chess.board.Position;
+import com.chess.board.TranslateFen;
+import com.chess.utils.RuleHandler;
+
+/**
+ * Throughput of the Board based rule checks, one operation = the whole corpus of a phase
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleHandlerBenchmark {
+
+    @Param({"opening", "middlegame", "endgame"})
+    public String phase;
+
+    private Board[] boards;
+    private int[] sides;
+    private String[] enPassantTargets;
+    // Legal moves of every position as {startCol, startRow, endCol, endRow}
+    private int[][][] moves;
+    private RuleHandler ruleHandler;
+
+    @Setup
+    public void setup() {
+        String[] fens = BenchmarkPositions.forPhase(phase);
+        boards = new Board[fens.length];
+        sides = new int[fens.length];
+        enPassantTargets = new String[fens.length];
+        moves = new int[fens.length][][];
+        ruleHandler = new RuleHandler();
+
+        for (int i = 0; i < fens.length; i++) {
+            TranslateFen.FenData fenData = TranslateFen.translateFenComplete(fens[i]);
+            boards[i] = fenData.getBoard();
+            sides[i] = fenData.getActiveColor();
+            enPassantTargets[i] = fenData.getEnPassantTarget();
+
+            MoveList legal = new MoveList();
+            MoveGenerator.generateLegalMoves(Position.fromFenData(fenData), legal);
+            moves[i] = new int[legal.size()][];
+            for (int m = 0; m < legal.size(); m++) {
+                int move = legal.get(m);
+                moves[i][m] = new int[] {
+                    Position.col(Move.from(move)), Position.row(Move.from(move)),
+                    Position.col(Move.to(move)), Position.row(Move.to(move))
+                };
+            }
+        }
+    }
+
+    @Benchmark
+    public int isMoveValid() {
+        int valid = 0;
+        for (int i = 0; i < boards.length; i++) {
+            Board board = boards[i];
+            ruleHandler.setEnPassantTarget(enPassantTargets[i]);
+            for (int[] m : moves[i]) {
+                if (ruleHandler.isMoveValid(board.getPiece(m[1], m[0]), m[0], m[1], m[2], m[3], board)) {
+                    valid++;
+                }
+            }
+        }
+        return valid;
+    }
+
+    @Benchmark
+    public int isSquareUnderAttack() {
+        int attacked = 0;
+        for (int i = 0; i < boards.length; i++) {
+            for (int row = 0; row < 8; row++) {
+                for (int col = 0; col < 8; col++) {
+                    if (ruleHandler.isSquareUnderAttack(boards[i], col, row, sides[i])) {
+                        attacked++;
+                    }
+                }
+            }
+        }
+        return attacked;
+    }
+
+    @Benchmark
+    public int hasAnyLegalMoves() {
+        int count = 0;
+        for (int i = 0; i < boards.length; i++) {
+            ruleHandler.setEnPassantTarget(enPassantTargets[i]);
+            if (ruleHandler.hasAnyLegalMoves(boards[i], sides[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int getGameState() {
+        int length = 0;
+        for (int i = 0; i < boards.length; i++) {
+            ruleHandler.setEnPassantTarget(enPassantTargets[i]);
+            length += ruleHandler.getGameState(boards[i], sides[i]).length();
+        }
+        return length;
+    }
+}
@@ -0,0 +1,96 @@
+package com.chess.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.chess.board.Position;
+import com.chess.engine.Engine;
+import com.chess.engine.SearchLimits;
+import com.chess.engine.SearchResult;
+
+/**
+ * Parallel search scaling, one operation = a fixed-depth search of every middlegame position
+ * from an empty transposition table
+ *
+ * The score is searches per second (time to depth); the "nodes" counter is the
+ * nodes per second summed over all threads.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"5"})
+    public int depth;
+
+    /**
+     * Per-iteration node totals, reported by JMH as a rate
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class NodeCounter {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    private Position[] positions;
+    private Engine engine;
+    private SearchLimits limits;
+
+    @Setup
+    public void setup() {
+        String[] fens = BenchmarkPositions.forPhase("middlegame");
+        positions = new Position[fens.length];
+        for (int i = 0; i < fens.length; i++) {
+            positions[i] = Position.fromFen(fens[i]);
+        }
+        engine = new Engine();
+        engine.setThreads(threads);
+        limits = SearchLimits.depth(depth);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearHash() {
+        engine.getTranspositionTable().clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.setThreads(1);
+    }
+
+    @Benchmark
+    public int search(NodeCounter counter) {
+        int moves = 0;
+        for (Position position : positions) {
+            SearchResult result = engine.bestMove(position, limits);
+            counter.nodes += result.getNodes();
+            moves += result.getBestMove();
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,307 @@
+package com.chess.board;
+
+/**
+ * Precomputed attack sets for move generation and attack detection
+ *
+ * Squares use the Position numbering (0 = a8, 63 = h1). Knight, king and pawn
+ * attacks are plain table lookups. Sliding pieces use magic bitboards: the
+ * occupied squares that can block a rook or bishop on a square (its mask) are
+ * multiplied by a per-square magic number, and the top bits of the product
+ * index a table holding the attack set for exactly that blocker pattern.
+ *
+ * The magics were found offline by trying sparse random numbers until one
+ * mapped every blocker pattern of its square without a harmful collision.
+ * The tables are filled from the ray-scan attacks, which stay as the
+ * reference implementation, and a magic that does not fit fails class loading.
+ */
+public class Attacks {
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = 0x8080808080808080L;
+
+    // Ray directions, as square index offsets
+    private static final int NORTH = 0;      // -8
+    private static final int SOUTH = 1;      // +8
+    private static final int EAST = 2;       // +1
+    private static final int WEST = 3;       // -1
+    private static final int NORTH_EAST = 4; // -7
+    private static final int NORTH_WEST = 5; // -9
+    private static final int SOUTH_EAST = 6; // +9
+    private static final int SOUTH_WEST = 7; // +7
+
+    private static final int[][] DIRECTIONS = {
+        {-1, 0}, {1, 0}, {0, 1}, {0, -1}, {-1, 1}, {-1, -1}, {1, 1}, {1, -1}
+    };
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    // Squares a pawn of each color attacks from a square: index 0 white, 1 black
+    private static final long[][] PAWN = new long[2][64];
+    private static final long[][] RAYS = new long[8][64];
+
+    private static final long[] ROOK_MAGICS = {
+        0x2080002040001880L, 0x0240004410002000L, 0x0880100080092004L, 0x0200080442011020L,
+        0x3080020800800400L, 0x0100010004000208L, 0x8200580304008600L, 0x40800030C4800300L,
+        0x0000800080400022L, 0x1424804008802000L, 0x8700802000100085L, 0x4181800801100080L,
+        0x8204800800800400L, 0x0408800200640080L, 0x2044000150040882L, 0x0009000085000856L,
+        0x0080004000402008L, 0x004001A008023000L, 0x0000420010820020L, 0x1002020009102140L,
+        0x4204808008000400L, 0x0002008004008002L, 0xC434040041020810L, 0x8800220010910044L,
+        0x0400800080204000L, 0x0001008100204000L, 0x1220100080200080L, 0x8029504A00204200L,
+        0x0408008080040008L, 0x1052020080800400L, 0x1480010400900248L, 0x1020800380006900L,
+        0x2280012000C00042L, 0x8040401002402000L, 0x0040200288801000L, 0x2588420022001009L,
+        0xA488010005003028L, 0x0040040080800200L, 0x20A2800100808200L, 0x402480A042000104L,
+        0x1080400020808006L, 0xC800500020004000L, 0x6080108200420020L, 0x004010010021000AL,
+        0x2206000820120004L, 0x0102002010040400L, 0x0800020004010100L, 0x0000108400420001L,
+        0x8001004080032500L, 0x0002004880250200L, 0x800010804A002200L, 0x8010000821001500L,
+        0x0404680100100500L, 0x0C04004100020040L, 0x800408503A010400L, 0x2020004114008200L,
+        0x0000488200102102L, 0x0000142200844102L, 0x8000090040200011L, 0x8800082100041001L,
+        0x0501004228001015L, 0x0401000204000801L, 0x300A008210080104L, 0x0000008C03210042L
+    };
+
+    private static final long[] BISHOP_MAGICS = {
+        0x8040012214860084L, 0xC010104138408484L, 0x4AC1020081002000L, 0x0004240280002200L,
+        0x404110408005C081L, 0x78A6081404010461L, 0x0842680410090000L, 0x0000404410080200L,
+        0x0002102008C88080L, 0x820802020A060A00L, 0x2030880819002000L, 0x01000444018051C4L,
+        0x0001020211108084L, 0x08000A0846290200L, 0x8102144108484008L, 0x2800020A01010800L,
+        0x0409001010010800L, 0x0490808444908401L, 0x04020110408C0100L, 0x0004010802488800L,
+        0x46C2000400940000L, 0x0108080501013000L, 0x06C0858D08905009L, 0x1100492088480808L,
+        0x0020080021080100L, 0x4654101882028800L, 0x8004010040820080L, 0x0041080004004310L,
+        0x6014840080802002L, 0x2004081005004201L, 0x2082041120410820L, 0x2012089002008080L,
+        0x082202214840C800L, 0x0402280200249009L, 0x0800402080100101L, 0x0121400820020201L,
+        0x1951020200040104L, 0x33A0080030898200L, 0x0090088125020108L, 0x2022006D00044408L,
+        0x200110080402230CL, 0x0084425010200400L, 0x8001120101005000L, 0x0227028401201400L,
+        0x1200084100400400L, 0x0010201081030420L, 0x08A024010A500220L, 0x020818840644208AL,
+        0x3084141404444002L, 0x00C0420610320200L, 0x020801004110010AL, 0x0004004084040000L,
+        0x01002490320A0000L, 0x0408C28801010208L, 0x8804080851040076L, 0x0810108101002C08L,
+        0x090942004C024008L, 0x00090C2088041001L, 0x0201800042280408L, 0x108000400C208804L,
+        0x0C0001A220020484L, 0x0404010408900101L, 0x0000841C98020408L, 0x002048100C808010L
+    };
+
+    // Magic lookup per square: relevant blocker mask, shift and offset into the attack table
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final int[] ROOK_OFFSETS = new int[64];
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final int[] BISHOP_OFFSETS = new int[64];
+    private static final long[] ROOK_TABLE;
+    private static final long[] BISHOP_TABLE;
+
+    // Squares strictly between two aligned squares, and the whole line through them (empty if not aligned)
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        int[][] knightSteps = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+
+        for (int sq = 0; sq < 64; sq++) {
+            int row = Position.row(sq);
+            int col = Position.col(sq);
+
+            for (int[] step : knightSteps) {
+                KNIGHT[sq] |= bitAt(row + step[0], col + step[1]);
+            }
+            for (int[] step : DIRECTIONS) {
+                KING[sq] |= bitAt(row + step[0], col + step[1]);
+            }
+
+            // White pawns move towards row 0, black pawns towards row 7
+            PAWN[0][sq] = bitAt(row - 1, col - 1) | bitAt(row - 1, col + 1);
+            PAWN[1][sq] = bitAt(row + 1, col - 1) | bitAt(row + 1, col + 1);
+
+            for (int dir = 0; dir < 8; dir++) {
+                int r = row + DIRECTIONS[dir][0];
+                int c = col + DIRECTIONS[dir][1];
+                while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                    RAYS[dir][sq] |= 1L << Position.square(r, c);
+                    r += DIRECTIONS[dir][0];
+                    c += DIRECTIONS[dir][1];
+                }
+            }
+        }
+
+        ROOK_TABLE = initMagics(true, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS);
+        BISHOP_TABLE = initMagics(false, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS);
+
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 64; b++) {
+                long ends = (1L << a) | (1L << b);
+                if (a != b && (rookAttacks(a, 0L) & (1L << b)) != 0) {
+                    BETWEEN[a][b] = rookAttacks(a, 1L << b) & rookAttacks(b, 1L << a);
+                    LINE[a][b] = (rookAttacks(a, 0L) & rookAttacks(b, 0L)) | ends;
+                } else if (a != b && (bishopAttacks(a, 0L) & (1L << b)) != 0) {
+                    BETWEEN[a][b] = bishopAttacks(a, 1L << b) & bishopAttacks(b, 1L << a);
+                    LINE[a][b] = (bishopAttacks(a, 0L) & bishopAttacks(b, 0L)) | ends;
+                }
+            }
+        }
+    }
+
+    /**
+     * Fills the attack table of one slider type
+     * @param rook true for rook attacks, false for bishop attacks
+     * @return The attack table, indexed by offset + (((occupied & mask) * magic) >>> shift)
+     */
+    private static long[] initMagics(boolean rook, long[] masks, long[] magics, int[] shifts, int[] offsets) {
+        int size = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            masks[sq] = rook ? rookMask(sq) : bishopMask(sq);
+            shifts[sq] = 64 - Long.bitCount(masks[sq]);
+            offsets[sq] = size;
+            size += 1 << Long.bitCount(masks[sq]);
+        }
+
+        long[] table = new long[size];
+        boolean[] filled = new boolean[size];
+
+        for (int sq = 0; sq < 64; sq++) {
+            long mask = masks[sq];
+
+            // Every subset of the mask (carry-rippler enumeration)
+            long subset = 0;
+            do {
+                long attacks = rook ? slowRookAttacks(sq, subset) : slowBishopAttacks(sq, subset);
+                int index = offsets[sq] + (int) ((subset * magics[sq]) >>> shifts[sq]);
+                if (filled[index] && table[index] != attacks) {
+                    throw new IllegalStateException("Bad " + (rook ? "rook" : "bishop") + " magic for square " + sq);
+                }
+                table[index] = attacks;
+                filled[index] = true;
+                subset = (subset - mask) & mask;
+            } while (subset != 0);
+        }
+        return table;
+    }
+
+    /**
+     * Squares whose occupancy can change a rook's attacks (the board edge never blocks anything behind it)
+     */
+    private static long rookMask(int sq) {
+        return withoutLastSquare(RAYS[SOUTH][sq], true) | withoutLastSquare(RAYS[EAST][sq], true)
+             | withoutLastSquare(RAYS[NORTH][sq], false) | withoutLastSquare(RAYS[WEST][sq], false);
+    }
+
+    private static long bishopMask(int sq) {
+        return withoutLastSquare(RAYS[SOUTH_EAST][sq], true) | withoutLastSquare(RAYS[SOUTH_WEST][sq], true)
+             | withoutLastSquare(RAYS[NORTH_EAST][sq], false) | withoutLastSquare(RAYS[NORTH_WEST][sq], false);
+    }
+
+    private static long withoutLastSquare(long ray, boolean positive) {
+        if (ray == 0) {
+            return 0L;
+        }
+        return ray & ~(positive ? Long.highestOneBit(ray) : Long.lowestOneBit(ray));
+    }
+
+    private static long bitAt(int row, int col) {
+        if (row < 0 || row > 7 || col < 0 || col > 7) {
+            return 0L;
+        }
+        return 1L << Position.square(row, col);
+    }
+
+    public static long knightAttacks(int sq) {
+        return KNIGHT[sq];
+    }
+
+    public static long kingAttacks(int sq) {
+        return KING[sq];
+    }
+
+    /**
+     * Gets the squares a pawn attacks
+     * @param color The pawn's color (WHITE or BLACK)
+     * @param sq The pawn's square
+     * @return The attacked squares
+     */
+    public static long pawnAttacks(int color, int sq) {
+        return PAWN[Position.colorIndex(color)][sq];
+    }
+
+    /**
+     * Gets the squares a rook attacks, including the first blocker on each ray
+     * @param sq The rook's square
+     * @param occupied All occupied squares
+     * @return The attacked squares
+     */
+    public static long rookAttacks(int sq, long occupied) {
+        return ROOK_TABLE[ROOK_OFFSETS[sq] + (int) (((occupied & ROOK_MASKS[sq]) * ROOK_MAGICS[sq]) >>> ROOK_SHIFTS[sq])];
+    }
+
+    /**
+     * Gets the squares a bishop attacks, including the first blocker on each ray
+     * @param sq The bishop's square
+     * @param occupied All occupied squares
+     * @return The attacked squares
+     */
+    public static long bishopAttacks(int sq, long occupied) {
+        return BISHOP_TABLE[BISHOP_OFFSETS[sq]
+            + (int) (((occupied & BISHOP_MASKS[sq]) * BISHOP_MAGICS[sq]) >>> BISHOP_SHIFTS[sq])];
+    }
+
+    public static long queenAttacks(int sq, long occupied) {
+        return rookAttacks(sq, occupied) | bishopAttacks(sq, occupied);
+    }
+
+    /**
+     * Gets the squares strictly between two squares on a rank, file or diagonal
+     * @return The squares in between, or 0 if the squares are not aligned
+     */
+    public static long between(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    /**
+     * Gets the full rank, file or diagonal through two squares, edge to edge
+     * @return The line, or 0 if the squares are not aligned
+     */
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    /**
+     * Reference rook attacks by scanning each ray for its first blocker
+     * @param sq The rook's square
+     * @param occupied All occupied squares
+     * @return The attacked squares
+     */
+    static long slowRookAttacks(int sq, long occupied) {
+        return positiveRay(SOUTH, sq, occupied) | positiveRay(EAST, sq, occupied)
+             | negativeRay(NORTH, sq, occupied) | negativeRay(WEST, sq, occupied);
+    }
+
+    /**
+     * Reference bishop attacks by scanning each ray for its first blocker
+     * @param sq The bishop's square
+     * @param occupied All occupied squares
+     * @return The attacked squares
+     */
+    static long slowBishopAttacks(int sq, long occupied) {
+        return positiveRay(SOUTH_EAST, sq, occupied) | positiveRay(SOUTH_WEST, sq, occupied)
+             | negativeRay(NORTH_EAST, sq, occupied) | negativeRay(NORTH_WEST, sq, occupied);
+    }
+
+    /**
+     * Ray towards higher square indices: the nearest blocker is the lowest set bit
+     */
+    private static long positiveRay(int dir, int sq, long occupied) {
+        long ray = RAYS[dir][sq];
+        long blockers = ray & occupied;
+        if (blockers != 0) {
+            ray ^= RAYS[dir][Long.numberOfTrailingZeros(blockers)];
+        }
+        return ray;
+    }
+
+    /**
+     * Ray towards lower square indices: the nearest blocker is the highest set bit
+     */
+    private static long negativeRay(int dir, int sq, long occupied) {
+        long ray = RAYS[dir][sq];
+        long blockers = ray & occupied;
+        if (blockers != 0) {
+            ray ^= RAYS[dir][63 - Long.numberOfLeadingZeros(blockers)];
+        }
+        return ray;
+    }
+}
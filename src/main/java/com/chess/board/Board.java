@@ -1,7 +1,9 @@
 package com.chess.board;
 
+import com.chess.pieces.King;
 import com.chess.pieces.Pawn;
 import com.chess.pieces.Piece;
+import com.chess.pieces.Rook;
 
 /*
  * this class is used to represent the chess board
@@ -24,6 +26,9 @@ public class Board {
     public static final int ROWS = 8;
     public static final int COLS = 8;
 
+    // incremented on every change so cached views of the board know when to refresh
+    private int version = 0;
+
     public Board() {
         this.BOARD = new Piece[ROWS][COLS];
     }
@@ -46,15 +51,24 @@ public class Board {
             if (movingPiece instanceof Pawn pawn) {
                 pawn.setFirstMove(false);
             }
+
+            // Kings and rooks lose their castling rights once they move
+            if (movingPiece instanceof King king) {
+                king.setMoved(true);
+            } else if (movingPiece instanceof Rook rook) {
+                rook.setMoved(true);
+            }
             
             // Move piece (capturing if there's an enemy piece at destination)
             BOARD[endX][endY] = movingPiece;
             BOARD[startX][startY] = new Piece(EMPTY, 0); // Set start position to empty
+            version++;
         }
     }
 
     public void setPiece(int x, int y, Piece piece) {
         BOARD[x][y] = piece;
+        version++;
     }
 
     public boolean isEmptySquare(int x, int y) {
@@ -63,5 +77,10 @@ public class Board {
 
     public void loadFenPosition(String fen) {
         this.BOARD = TranslateFen.translateFen(fen, this).BOARD;
+        version++;
+    }
+
+    public int getVersion() {
+        return version;
     }
 }
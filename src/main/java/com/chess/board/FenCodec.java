@@ -0,0 +1,365 @@
+package com.chess.board;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Allocation-free FEN reader and writer for bulk processing
+ *
+ * Parses straight from a CharSequence or a slice of an ASCII ByteBuffer into a
+ * reusable Position, and writes a position into a caller-supplied buffer, without
+ * creating intermediate strings, arrays or piece objects. Parsing accepts what
+ * TranslateFen.translateFenComplete accepts (missing trailing fields take the same
+ * defaults, slashes after the last row are ignored), plus any run of whitespace
+ * between fields; writing produces exactly the text of TranslateFen.fenDataToString.
+ *
+ * An instance keeps a small scratch buffer, so use one per thread.
+ */
+public class FenCodec {
+
+    // Longest FEN this codec writes: 71 placement characters, the other fields and two 10 digit counters
+    public static final int MAX_LENGTH = 128;
+
+    // Piece code by FEN letter, EMPTY for anything else (as TranslateFen does)
+    private static final int[] PIECE_BY_CHAR = new int[128];
+    // FEN letter by piece code (color | type)
+    private static final byte[] CHAR_BY_PIECE = new byte[32];
+
+    static {
+        String letters = " prnbqk";
+        for (int type = Position.PAWN; type <= Position.KING; type++) {
+            char black = letters.charAt(type);
+            char white = Character.toUpperCase(black);
+            PIECE_BY_CHAR[black] = Position.BLACK | type;
+            PIECE_BY_CHAR[white] = Position.WHITE | type;
+            CHAR_BY_PIECE[Position.BLACK | type] = (byte) black;
+            CHAR_BY_PIECE[Position.WHITE | type] = (byte) white;
+        }
+    }
+
+    private final byte[] scratch = new byte[MAX_LENGTH];
+
+    // The source being parsed: exactly one of the two is set during parse
+    private CharSequence chars;
+    private ByteBuffer bytes;
+
+    /**
+     * Parses a complete FEN into a position, replacing its contents and history
+     * @param fen The FEN text
+     * @param position The position to overwrite
+     */
+    public void parse(CharSequence fen, Position position) {
+        parse(fen, 0, fen.length(), position);
+    }
+
+    /**
+     * Parses the FEN between two indexes of a character sequence
+     * @param fen The text holding the FEN
+     * @param start The index of the first character
+     * @param end The index after the last character
+     * @param position The position to overwrite
+     */
+    public void parse(CharSequence fen, int start, int end, Position position) {
+        chars = fen;
+        try {
+            parse(start, end, position);
+        } finally {
+            chars = null;
+        }
+    }
+
+    /**
+     * Parses the ASCII FEN between two absolute indexes of a buffer (the buffer's position is not changed)
+     * @param buffer The buffer holding the FEN
+     * @param start The index of the first byte
+     * @param end The index after the last byte
+     * @param position The position to overwrite
+     */
+    public void parse(ByteBuffer buffer, int start, int end, Position position) {
+        bytes = buffer;
+        try {
+            parse(start, end, position);
+        } finally {
+            bytes = null;
+        }
+    }
+
+    /**
+     * Writes the FEN of a position into a byte array
+     * @param position The position to write
+     * @param buffer The destination
+     * @param offset The index of the first byte to write
+     * @return The number of bytes written
+     */
+    public int write(Position position, byte[] buffer, int offset) {
+        int length = encode(position);
+        if (offset < 0 || buffer.length - offset < length) {
+            throw new IllegalArgumentException("Buffer too small for FEN of " + length + " bytes at offset " + offset);
+        }
+        System.arraycopy(scratch, 0, buffer, offset, length);
+        return length;
+    }
+
+    /**
+     * Writes the FEN of a position at the buffer's position, advancing it
+     * @param position The position to write
+     * @param buffer The destination
+     * @return The number of bytes written
+     */
+    public int write(Position position, ByteBuffer buffer) {
+        int length = encode(position);
+        buffer.put(scratch, 0, length);
+        return length;
+    }
+
+    /**
+     * Appends the FEN of a position to a StringBuilder
+     * @param position The position to write
+     * @param builder The destination
+     */
+    public void write(Position position, StringBuilder builder) {
+        int length = encode(position);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) scratch[i]);
+        }
+    }
+
+    private int charAt(int index) {
+        return chars != null ? chars.charAt(index) : bytes.get(index) & 0xFF;
+    }
+
+    private void parse(int start, int end, Position position) {
+        // Trailing whitespace (e.g., a line ending) is not part of the FEN
+        while (end > start && charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start >= end) {
+            throw new IllegalArgumentException("FEN string cannot be null or empty");
+        }
+        position.clear();
+
+        // 1. Piece placement
+        int index = start;
+        int row = 0;
+        int col = 0;
+        for (; index < end; index++) {
+            int c = charAt(index);
+            if (c <= ' ') {
+                break;
+            }
+            if (c == '/') {
+                // TranslateFen's split("/") drops empty rows at the end, so trailing slashes are accepted
+                if (row == 7 && onlySlashes(index, end)) {
+                    index = fieldEnd(index, end);
+                    break;
+                }
+                if (++row > 7) {
+                    throw new IllegalArgumentException("FEN must have exactly 8 rows");
+                }
+                col = 0;
+            } else if (c >= '0' && c <= '9') {
+                col = Math.min(col + c - '0', 8);
+            } else if (col < 8) {
+                int piece = c < 128 ? PIECE_BY_CHAR[c] : Position.EMPTY;
+                if (piece != Position.EMPTY) {
+                    position.putPiece(Position.square(row, col), piece);
+                }
+                col++;
+            }
+        }
+        if (row != 7) {
+            throw new IllegalArgumentException("FEN must have exactly 8 rows");
+        }
+
+        // Fields left out keep the TranslateFen defaults: white to move, all castling rights, no en passant
+        int castling = Position.ALL_CASTLING;
+
+        // 2. Active color
+        index = skipSpaces(index, end);
+        if (index < end) {
+            int fieldEnd = fieldEnd(index, end);
+            int c = charAt(index);
+            if (fieldEnd - index != 1 || (c != 'w' && c != 'b')) {
+                throw new IllegalArgumentException("Invalid active color: " + field(index, fieldEnd) + " (must be 'w' or 'b')");
+            }
+            position.setSideToMove(c == 'w' ? Position.WHITE : Position.BLACK);
+            index = skipSpaces(fieldEnd, end);
+        }
+
+        // 3. Castling rights
+        if (index < end) {
+            int fieldEnd = fieldEnd(index, end);
+            castling = 0;
+            if (fieldEnd - index != 1 || charAt(index) != '-') {
+                for (int i = index; i < fieldEnd; i++) {
+                    switch (charAt(i)) {
+                        case 'K': castling |= Position.WHITE_KINGSIDE; break;
+                        case 'Q': castling |= Position.WHITE_QUEENSIDE; break;
+                        case 'k': castling |= Position.BLACK_KINGSIDE; break;
+                        case 'q': castling |= Position.BLACK_QUEENSIDE; break;
+                        default:
+                            throw new IllegalArgumentException("Invalid castling character: " + (char) charAt(i));
+                    }
+                }
+            }
+            index = skipSpaces(fieldEnd, end);
+        }
+        position.setCastlingRights(castling);
+
+        // 4. En passant target
+        if (index < end) {
+            int fieldEnd = fieldEnd(index, end);
+            if (fieldEnd - index != 1 || charAt(index) != '-') {
+                int file = charAt(index);
+                int rank = fieldEnd - index == 2 ? charAt(index + 1) : 0;
+                if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+                    throw new IllegalArgumentException("Invalid en passant target: " + field(index, fieldEnd));
+                }
+                position.setEnPassantSquare(Position.square(8 - (rank - '0'), file - 'a'));
+            }
+            index = skipSpaces(fieldEnd, end);
+        }
+
+        // 5. Halfmove clock
+        if (index < end) {
+            int fieldEnd = fieldEnd(index, end);
+            position.setHalfmoveClock(parseNumber(index, fieldEnd, "halfmove clock"));
+            index = skipSpaces(fieldEnd, end);
+        }
+
+        // 6. Fullmove number
+        if (index < end) {
+            int fieldEnd = fieldEnd(index, end);
+            int fullmove = parseNumber(index, fieldEnd, "fullmove number");
+            if (fullmove < 1) {
+                throw new IllegalArgumentException("Fullmove number must be at least 1: " + fullmove);
+            }
+            position.setFullmoveNumber(fullmove);
+        }
+    }
+
+    // Any whitespace (space, tab, ...) separates fields, as in EPD files
+    private int skipSpaces(int index, int end) {
+        while (index < end && charAt(index) <= ' ') {
+            index++;
+        }
+        return index;
+    }
+
+    private int fieldEnd(int index, int end) {
+        while (index < end && charAt(index) > ' ') {
+            index++;
+        }
+        return index;
+    }
+
+    private boolean onlySlashes(int index, int end) {
+        int fieldEnd = fieldEnd(index, end);
+        for (int i = index; i < fieldEnd; i++) {
+            if (charAt(i) != '/') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int parseNumber(int start, int end, String name) {
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int c = charAt(i);
+            if (c < '0' || c > '9' || (value = value * 10 + c - '0') > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid " + name + ": " + field(start, end));
+            }
+        }
+        return (int) value;
+    }
+
+    // Only used to build error messages
+    private String field(int start, int end) {
+        StringBuilder text = new StringBuilder();
+        for (int i = start; i < end; i++) {
+            text.append((char) charAt(i));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Writes the FEN of a position into the scratch buffer
+     * @return The length in bytes
+     */
+    private int encode(Position position) {
+        byte[] out = scratch;
+        int length = 0;
+
+        // 1. Piece placement
+        for (int row = 0; row < 8; row++) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                int piece = position.getPiece(Position.square(row, col));
+                if (piece == Position.EMPTY) {
+                    empty++;
+                } else {
+                    if (empty > 0) {
+                        out[length++] = (byte) ('0' + empty);
+                        empty = 0;
+                    }
+                    out[length++] = CHAR_BY_PIECE[piece];
+                }
+            }
+            if (empty > 0) {
+                out[length++] = (byte) ('0' + empty);
+            }
+            if (row < 7) {
+                out[length++] = '/';
+            }
+        }
+
+        // 2. Active color
+        out[length++] = ' ';
+        out[length++] = (byte) (position.getSideToMove() == Position.WHITE ? 'w' : 'b');
+
+        // 3. Castling rights
+        out[length++] = ' ';
+        int castling = position.getCastlingRights();
+        if (castling == 0) {
+            out[length++] = '-';
+        } else {
+            if ((castling & Position.WHITE_KINGSIDE) != 0) out[length++] = 'K';
+            if ((castling & Position.WHITE_QUEENSIDE) != 0) out[length++] = 'Q';
+            if ((castling & Position.BLACK_KINGSIDE) != 0) out[length++] = 'k';
+            if ((castling & Position.BLACK_QUEENSIDE) != 0) out[length++] = 'q';
+        }
+
+        // 4. En passant target
+        out[length++] = ' ';
+        int enPassant = position.getEnPassantSquare();
+        if (enPassant == Position.NO_SQUARE) {
+            out[length++] = '-';
+        } else {
+            out[length++] = (byte) ('a' + Position.col(enPassant));
+            out[length++] = (byte) ('0' + 8 - Position.row(enPassant));
+        }
+
+        // 5. and 6. Halfmove clock and fullmove number
+        out[length++] = ' ';
+        length = writeNumber(position.getHalfmoveClock(), out, length);
+        out[length++] = ' ';
+        length = writeNumber(position.getFullmoveNumber(), out, length);
+        return length;
+    }
+
+    private static int writeNumber(int value, byte[] out, int offset) {
+        if (value < 0) {
+            out[offset++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (int rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            out[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + digits;
+    }
+}
@@ -0,0 +1,98 @@
+package com.chess.board;
+
+/**
+ * Static helpers for moves packed into a single int
+ *
+ * Layout (32 bits):
+ *   bits  0-5   from square (Position numbering, 0 = a8)
+ *   bits  6-11  to square
+ *   bits 12-16  moving piece code (color | type)
+ *   bits 17-21  captured piece code, 0 if none (the pawn for en passant)
+ *   bits 22-24  promotion piece type, 0 if none
+ *   bits 25-27  flags: castle, en passant, double pawn push
+ *
+ * Moves are plain ints so generation and search never allocate; 0 is never
+ * a valid move and is used as NONE.
+ */
+public final class Move {
+
+    public static final int NONE = 0;
+
+    public static final int FLAG_CASTLE = 1 << 25;
+    public static final int FLAG_EN_PASSANT = 1 << 26;
+    public static final int FLAG_DOUBLE_PUSH = 1 << 27;
+
+    private Move() {
+    }
+
+    /**
+     * Packs a move into an int
+     * @param from The origin square
+     * @param to The destination square
+     * @param piece The moving piece code
+     * @param captured The captured piece code, or Position.EMPTY
+     * @param promotion The promotion piece type, or 0
+     * @param flags Any combination of the FLAG_ constants
+     * @return The encoded move
+     */
+    public static int of(int from, int to, int piece, int captured, int promotion, int flags) {
+        return from | (to << 6) | (piece << 12) | (captured << 17) | (promotion << 22) | flags;
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    public static int piece(int move) {
+        return (move >>> 12) & 31;
+    }
+
+    public static int captured(int move) {
+        return (move >>> 17) & 31;
+    }
+
+    public static int promotion(int move) {
+        return (move >>> 22) & 7;
+    }
+
+    public static boolean isCapture(int move) {
+        return captured(move) != Position.EMPTY;
+    }
+
+    public static boolean isPromotion(int move) {
+        return promotion(move) != 0;
+    }
+
+    public static boolean isCastle(int move) {
+        return (move & FLAG_CASTLE) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (move & FLAG_EN_PASSANT) != 0;
+    }
+
+    public static boolean isDoublePush(int move) {
+        return (move & FLAG_DOUBLE_PUSH) != 0;
+    }
+
+    /**
+     * Converts a move to long algebraic notation (e.g., "e2e4", "e7e8q")
+     * @param move The encoded move
+     * @return The move string, or "0000" for NONE
+     */
+    public static String toString(int move) {
+        if (move == NONE) {
+            return "0000";
+        }
+        String text = Position.squareToString(from(move)) + Position.squareToString(to(move));
+        if (isPromotion(move)) {
+            // Indexed by piece type: 2 rook, 3 knight, 4 bishop, 5 queen
+            text += " prnbqk".charAt(promotion(move));
+        }
+        return text;
+    }
+}
@@ -0,0 +1,348 @@
+package com.chess.board;
+
+/**
+ * Move generator working on a bitboard Position
+ *
+ * Only squares a piece can actually reach are visited: knights and kings use
+ * the lookup tables in Attacks, sliders use the magic attacks, and pawns are
+ * generated set-wise with shifts. Moves are packed ints (see Move) written
+ * into a caller supplied MoveList, so generation itself never allocates.
+ *
+ * Legal moves are filtered with masks computed once per position: the pieces
+ * giving check and the own pieces pinned to the king. A non-king move is legal
+ * if it resolves a check (captures the checker or blocks its line) and keeps a
+ * pinned piece on its pin line; a king move is legal if its destination is not
+ * attacked with the king itself lifted off the board. Only en passant, which
+ * can uncover an attack along the rank of both pawns, is still tested by
+ * making the move.
+ */
+public class MoveGenerator {
+
+    private static final int WHITE = Position.WHITE;
+
+    private static final long ROW_0 = 0xFFL;
+    private static final long ROW_2 = 0xFFL << 16;
+    private static final long ROW_5 = 0xFFL << 40;
+    private static final long ROW_7 = 0xFFL << 56;
+
+    private static final int[] PROMOTIONS = {Position.QUEEN, Position.ROOK, Position.BISHOP, Position.KNIGHT};
+
+    /**
+     * Generates every pseudo-legal move for the side to move
+     * (moves that may still leave the own king in check)
+     * @param position The position to generate moves for
+     * @param moves The list to append the moves to
+     */
+    public static void generatePseudoLegalMoves(Position position, MoveList moves) {
+        generatePseudoLegal(position, moves, false);
+    }
+
+    /**
+     * @param capturesOnly true to generate only captures and promotions
+     */
+    private static void generatePseudoLegal(Position position, MoveList moves, boolean capturesOnly) {
+        int us = position.getSideToMove();
+        int them = Position.opposite(us);
+        long own = position.getPieces(us);
+        long targets = capturesOnly ? position.getPieces(them) : ~own;
+        long occupied = position.getOccupied();
+
+        generatePawnMoves(position, us, them, moves, capturesOnly);
+
+        long knights = position.getPieces(us, Position.KNIGHT);
+        while (knights != 0) {
+            int from = Long.numberOfTrailingZeros(knights);
+            knights &= knights - 1;
+            addMoves(position, from, Attacks.knightAttacks(from) & targets, moves);
+        }
+
+        long bishops = position.getPieces(us, Position.BISHOP) | position.getPieces(us, Position.QUEEN);
+        while (bishops != 0) {
+            int from = Long.numberOfTrailingZeros(bishops);
+            bishops &= bishops - 1;
+            addMoves(position, from, Attacks.bishopAttacks(from, occupied) & targets, moves);
+        }
+
+        long rooks = position.getPieces(us, Position.ROOK) | position.getPieces(us, Position.QUEEN);
+        while (rooks != 0) {
+            int from = Long.numberOfTrailingZeros(rooks);
+            rooks &= rooks - 1;
+            addMoves(position, from, Attacks.rookAttacks(from, occupied) & targets, moves);
+        }
+
+        long king = position.getPieces(us, Position.KING);
+        if (king != 0) {
+            int from = Long.numberOfTrailingZeros(king);
+            addMoves(position, from, Attacks.kingAttacks(from) & targets, moves);
+            if (!capturesOnly) {
+                generateCastling(position, us, them, from, moves);
+            }
+        }
+    }
+
+    /**
+     * Generates only the moves that do not leave the own king in check
+     * @param position The position to generate moves for
+     * @param moves The list to append the moves to
+     */
+    public static void generateLegalMoves(Position position, MoveList moves) {
+        generateLegal(position, moves, false);
+    }
+
+    /**
+     * Generates only the legal captures and promotions (for quiescence search)
+     * @param position The position to generate moves for
+     * @param moves The list to append the moves to
+     */
+    public static void generateLegalCaptures(Position position, MoveList moves) {
+        generateLegal(position, moves, true);
+    }
+
+    private static void generateLegal(Position position, MoveList moves, boolean capturesOnly) {
+        int us = position.getSideToMove();
+        int kingSquare = position.getKingSquare(us);
+        int start = moves.size();
+        if (kingSquare == Position.NO_SQUARE) {
+            // Without a king every pseudo-legal move is legal
+            generatePseudoLegal(position, moves, capturesOnly);
+            return;
+        }
+
+        long checkers = position.attackersTo(kingSquare, Position.opposite(us), position.getOccupied());
+        if (Long.bitCount(checkers) > 1) {
+            // Double check: only the king can move
+            long targets = capturesOnly ? position.getPieces(Position.opposite(us)) : ~position.getPieces(us);
+            addMoves(position, kingSquare, Attacks.kingAttacks(kingSquare) & targets, moves);
+        } else {
+            generatePseudoLegal(position, moves, capturesOnly);
+        }
+        long pinned = pinnedPieces(position, us, kingSquare);
+
+        // Compact the legal moves in place over the pseudo-legal ones
+        int end = moves.size();
+        int kept = start;
+        for (int i = start; i < end; i++) {
+            int move = moves.get(i);
+            if (isLegal(position, move, kingSquare, checkers, pinned)) {
+                moves.set(kept++, move);
+            }
+        }
+        moves.truncate(kept);
+    }
+
+    /**
+     * Checks if the side to move has at least one legal move
+     * @param position The position to check
+     * @param buffer A scratch list for the generated moves (cleared first)
+     * @return true if any legal move exists
+     */
+    public static boolean hasLegalMove(Position position, MoveList buffer) {
+        buffer.clear();
+        generateLegalMoves(position, buffer);
+        return !buffer.isEmpty();
+    }
+
+    /**
+     * Checks if a pseudo-legal move leaves the mover's king safe
+     * @param position The position before the move
+     * @param move The encoded move
+     * @return true if the king is not attacked after the move
+     */
+    public static boolean isLegal(Position position, int move) {
+        int us = position.getSideToMove();
+        int kingSquare = position.getKingSquare(us);
+        if (kingSquare == Position.NO_SQUARE) {
+            return true;
+        }
+        long checkers = position.attackersTo(kingSquare, Position.opposite(us), position.getOccupied());
+        return isLegal(position, move, kingSquare, checkers, pinnedPieces(position, us, kingSquare));
+    }
+
+    private static boolean isLegal(Position position, int move, int kingSquare, long checkers, long pinned) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+
+        if (from == kingSquare) {
+            // Castling already checked every square the king crosses
+            if (Move.isCastle(move)) {
+                return true;
+            }
+            int them = Position.opposite(position.getSideToMove());
+            long occupied = position.getOccupied() ^ (1L << kingSquare);
+            return position.attackersTo(to, them, occupied) == 0;
+        }
+
+        if (Move.isEnPassant(move)) {
+            return isLegalByMaking(position, move);
+        }
+        if (checkers != 0) {
+            // Single check (the generator produced only king moves in double check)
+            int checker = Long.numberOfTrailingZeros(checkers);
+            if (((Attacks.between(kingSquare, checker) | checkers) & (1L << to)) == 0) {
+                return false;
+            }
+        }
+        return (pinned & (1L << from)) == 0 || (Attacks.line(kingSquare, from) & (1L << to)) != 0;
+    }
+
+    /**
+     * Plays the move and tests the king (used where the masks are not enough)
+     */
+    private static boolean isLegalByMaking(Position position, int move) {
+        int us = position.getSideToMove();
+        position.makeMove(move);
+
+        int kingSquare = position.getKingSquare(us);
+        boolean legal = kingSquare == Position.NO_SQUARE || !position.isSquareAttacked(kingSquare, Position.opposite(us));
+
+        position.unmakeMove(move);
+        return legal;
+    }
+
+    /**
+     * Finds the own pieces that are the only blocker between the king and an enemy slider
+     */
+    private static long pinnedPieces(Position position, int us, int kingSquare) {
+        int them = Position.opposite(us);
+        long occupied = position.getOccupied();
+        long queens = position.getPieces(them, Position.QUEEN);
+        long snipers = (Attacks.rookAttacks(kingSquare, 0L) & (position.getPieces(them, Position.ROOK) | queens))
+                     | (Attacks.bishopAttacks(kingSquare, 0L) & (position.getPieces(them, Position.BISHOP) | queens));
+
+        long pinned = 0L;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = Attacks.between(kingSquare, sniper) & occupied;
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0) {
+                pinned |= blockers & position.getPieces(us);
+            }
+        }
+        return pinned;
+    }
+
+    private static void addMoves(Position position, int from, long targets, MoveList moves) {
+        int piece = position.getPiece(from);
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves.add(Move.of(from, to, piece, position.getPiece(to), 0, 0));
+        }
+    }
+
+    private static void generatePawnMoves(Position position, int us, int them, MoveList moves, boolean capturesOnly) {
+        long pawns = position.getPieces(us, Position.PAWN);
+        long enemies = position.getPieces(them);
+        long empty = ~position.getOccupied();
+
+        // Square offsets from origin to destination for each kind of pawn move
+        int forward;
+        long singlePushes;
+        long doublePushes;
+        long westCaptures;
+        long eastCaptures;
+        int westOffset;
+        int eastOffset;
+        long promotionRow;
+
+        if (us == WHITE) {
+            // White moves towards row 0 (lower square indices)
+            forward = -8;
+            singlePushes = (pawns >>> 8) & empty;
+            doublePushes = ((singlePushes & ROW_5) >>> 8) & empty;
+            westCaptures = ((pawns & ~Attacks.FILE_A) >>> 9) & enemies;
+            eastCaptures = ((pawns & ~Attacks.FILE_H) >>> 7) & enemies;
+            westOffset = -9;
+            eastOffset = -7;
+            promotionRow = ROW_0;
+        } else {
+            forward = 8;
+            singlePushes = (pawns << 8) & empty;
+            doublePushes = ((singlePushes & ROW_2) << 8) & empty;
+            westCaptures = ((pawns & ~Attacks.FILE_A) << 7) & enemies;
+            eastCaptures = ((pawns & ~Attacks.FILE_H) << 9) & enemies;
+            westOffset = 7;
+            eastOffset = 9;
+            promotionRow = ROW_7;
+        }
+
+        // Of the quiet pawn moves only pushes that promote count as captures
+        if (capturesOnly) {
+            singlePushes &= promotionRow;
+            doublePushes = 0L;
+        }
+
+        int pawn = us | Position.PAWN;
+        addPawnMoves(position, pawn, singlePushes, forward, promotionRow, moves);
+        addPawnMoves(position, pawn, westCaptures, westOffset, promotionRow, moves);
+        addPawnMoves(position, pawn, eastCaptures, eastOffset, promotionRow, moves);
+
+        while (doublePushes != 0) {
+            int to = Long.numberOfTrailingZeros(doublePushes);
+            doublePushes &= doublePushes - 1;
+            moves.add(Move.of(to - 2 * forward, to, pawn, Position.EMPTY, 0, Move.FLAG_DOUBLE_PUSH));
+        }
+
+        // En passant: our pawns that attack the target square
+        int epSquare = position.getEnPassantSquare();
+        if (epSquare != Position.NO_SQUARE) {
+            long attackers = Attacks.pawnAttacks(them, epSquare) & pawns;
+            while (attackers != 0) {
+                int from = Long.numberOfTrailingZeros(attackers);
+                attackers &= attackers - 1;
+                moves.add(Move.of(from, epSquare, pawn, them | Position.PAWN, 0, Move.FLAG_EN_PASSANT));
+            }
+        }
+    }
+
+    private static void addPawnMoves(Position position, int pawn, long destinations, int offset, long promotionRow, MoveList moves) {
+        while (destinations != 0) {
+            int to = Long.numberOfTrailingZeros(destinations);
+            destinations &= destinations - 1;
+            int from = to - offset;
+            int captured = position.getPiece(to);
+
+            if (((1L << to) & promotionRow) != 0) {
+                for (int promotion : PROMOTIONS) {
+                    moves.add(Move.of(from, to, pawn, captured, promotion, 0));
+                }
+            } else {
+                moves.add(Move.of(from, to, pawn, captured, 0, 0));
+            }
+        }
+    }
+
+    private static void generateCastling(Position position, int us, int them, int kingSquare, MoveList moves) {
+        int rights = position.getCastlingRights();
+        int homeSquare = us == WHITE ? 60 : 4;   // e1 or e8
+        int kingside = us == WHITE ? Position.WHITE_KINGSIDE : Position.BLACK_KINGSIDE;
+        int queenside = us == WHITE ? Position.WHITE_QUEENSIDE : Position.BLACK_QUEENSIDE;
+
+        if (kingSquare != homeSquare || (rights & (kingside | queenside)) == 0) {
+            return;
+        }
+        if (position.isSquareAttacked(homeSquare, them)) {
+            return;
+        }
+
+        long occupied = position.getOccupied();
+        int rook = us | Position.ROOK;
+        int king = us | Position.KING;
+
+        // Kingside: f and g files empty, king does not pass through check
+        if ((rights & kingside) != 0 && position.getPiece(homeSquare + 3) == rook
+                && (occupied & (3L << (homeSquare + 1))) == 0
+                && !position.isSquareAttacked(homeSquare + 1, them)
+                && !position.isSquareAttacked(homeSquare + 2, them)) {
+            moves.add(Move.of(homeSquare, homeSquare + 2, king, Position.EMPTY, 0, Move.FLAG_CASTLE));
+        }
+
+        // Queenside: b, c and d files empty, king does not pass through check
+        if ((rights & queenside) != 0 && position.getPiece(homeSquare - 4) == rook
+                && (occupied & (7L << (homeSquare - 3))) == 0
+                && !position.isSquareAttacked(homeSquare - 1, them)
+                && !position.isSquareAttacked(homeSquare - 2, them)) {
+            moves.add(Move.of(homeSquare, homeSquare - 2, king, Position.EMPTY, 0, Move.FLAG_CASTLE));
+        }
+    }
+}
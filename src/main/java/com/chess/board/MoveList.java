@@ -0,0 +1,75 @@
+package com.chess.board;
+
+/**
+ * Reusable fixed-capacity buffer of encoded moves
+ *
+ * Generation writes into the backing int array and clear() only resets the
+ * size, so a list can be kept per search ply and reused without allocating.
+ */
+public class MoveList {
+
+    // No legal chess position has more than 218 moves
+    public static final int CAPACITY = 256;
+
+    private final int[] moves = new int[CAPACITY];
+    private int size;
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Drops every move from an index onwards
+     * @param newSize The number of moves to keep
+     */
+    public void truncate(int newSize) {
+        size = newSize;
+    }
+
+    /**
+     * Creates one preallocated list per search ply
+     * @param plies The number of plies
+     * @return The lists, indexed by ply
+     */
+    public static MoveList[] perPly(int plies) {
+        MoveList[] lists = new MoveList[plies];
+        for (int i = 0; i < plies; i++) {
+            lists[i] = new MoveList();
+        }
+        return lists;
+    }
+
+    /**
+     * Checks if the list contains a move
+     * @param move The encoded move
+     * @return true if the move is in the list
+     */
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
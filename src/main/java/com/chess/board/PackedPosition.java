@@ -0,0 +1,138 @@
+package com.chess.board;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Fixed-size binary encoding of a position: 32 bytes instead of 30-90 bytes of FEN
+ *
+ * Four 64-bit words, big-endian (network order) whatever the buffer's byte order:
+ * - word 0: occupancy, bit n set if square n (a8 = 0 ... h1 = 63) holds a piece
+ * - words 1-2: a 4-bit code per occupied square in ascending square order, the
+ *   first piece in the lowest bits of word 1; code = piece type (1-6), plus 8 for black
+ * - word 3: bit 0 side to move (1 = black), bits 1-4 castling rights,
+ *   bits 5-11 en passant square + 1 (0 = none), bits 12-27 halfmove clock,
+ *   bits 28-59 fullmove number
+ * Decoding needs no parsing and the size allows fixed-length records (see PositionFile).
+ */
+public final class PackedPosition {
+
+    public static final int SIZE = 32;
+
+    private static final int MAX_PIECES = 32;
+    private static final int MAX_HALFMOVE_CLOCK = 0xFFFF;
+
+    private PackedPosition() {
+    }
+
+    /**
+     * Encodes a position at an absolute index of a buffer (the buffer's position is not changed)
+     * @param position The position to encode (at most 32 pieces)
+     * @param buffer The destination
+     * @param offset The index of the first byte
+     */
+    public static void encode(Position position, ByteBuffer buffer, int offset) {
+        long occupied = position.getOccupied();
+        long low = 0;
+        long high = 0;
+        int count = 0;
+        for (long bits = occupied; bits != 0; bits &= bits - 1) {
+            if (count == MAX_PIECES) {
+                throw new IllegalArgumentException("Position has more than " + MAX_PIECES + " pieces");
+            }
+            int piece = position.getPiece(Long.numberOfTrailingZeros(bits));
+            long code = (piece & 7) | (piece & Position.BLACK) >>> 1;
+            if (count < 16) {
+                low |= code << (count * 4);
+            } else {
+                high |= code << ((count - 16) * 4);
+            }
+            count++;
+        }
+
+        putLong(buffer, offset, occupied);
+        putLong(buffer, offset + 8, low);
+        putLong(buffer, offset + 16, high);
+        putLong(buffer, offset + 24, packState(position));
+    }
+
+    /**
+     * Decodes a position from an absolute index of a buffer, replacing the position's contents and history
+     * @param buffer The source
+     * @param offset The index of the first byte
+     * @param position The position to overwrite
+     * @throws IllegalArgumentException If the bytes are not a valid encoding
+     */
+    public static void decode(ByteBuffer buffer, int offset, Position position) {
+        long occupied = getLong(buffer, offset);
+        long low = getLong(buffer, offset + 8);
+        long high = getLong(buffer, offset + 16);
+        long state = getLong(buffer, offset + 24);
+
+        position.clear();
+        int count = 0;
+        for (long bits = occupied; bits != 0; bits &= bits - 1) {
+            if (count == MAX_PIECES) {
+                throw new IllegalArgumentException("Encoded position has more than " + MAX_PIECES + " pieces");
+            }
+            int code = (int) ((count < 16 ? low >>> (count * 4) : high >>> ((count - 16) * 4)) & 15);
+            int type = code & 7;
+            if (type < Position.PAWN || type > Position.KING) {
+                throw new IllegalArgumentException("Invalid piece code " + code + " in encoded position");
+            }
+            position.putPiece(Long.numberOfTrailingZeros(bits), ((code & 8) != 0 ? Position.BLACK : Position.WHITE) | type);
+            count++;
+        }
+
+        int enPassant = (int) (state >>> 5 & 0x7F) - 1;
+        if (enPassant > 63) {
+            throw new IllegalArgumentException("Invalid en passant square in encoded position: " + enPassant);
+        }
+        position.setSideToMove((state & 1) != 0 ? Position.BLACK : Position.WHITE);
+        position.setCastlingRights((int) (state >>> 1 & 0xF));
+        position.setEnPassantSquare(enPassant);
+        position.setHalfmoveClock((int) (state >>> 12 & 0xFFFF));
+        position.setFullmoveNumber((int) (state >>> 28 & 0xFFFFFFFFL));
+    }
+
+    /**
+     * Encodes a position into a byte array
+     * @param position The position to encode
+     * @param bytes The destination
+     * @param offset The index of the first byte
+     */
+    public static void encode(Position position, byte[] bytes, int offset) {
+        encode(position, ByteBuffer.wrap(bytes), offset);
+    }
+
+    /**
+     * Decodes a position from a byte array
+     * @param bytes The source
+     * @param offset The index of the first byte
+     * @param position The position to overwrite
+     */
+    public static void decode(byte[] bytes, int offset, Position position) {
+        decode(ByteBuffer.wrap(bytes), offset, position);
+    }
+
+    private static long packState(Position position) {
+        int halfmove = position.getHalfmoveClock();
+        if (halfmove < 0 || halfmove > MAX_HALFMOVE_CLOCK) {
+            throw new IllegalArgumentException("Halfmove clock out of range: " + halfmove);
+        }
+        return (position.getSideToMove() == Position.BLACK ? 1L : 0L)
+             | (long) position.getCastlingRights() << 1
+             | (long) (position.getEnPassantSquare() + 1) << 5
+             | (long) halfmove << 12
+             | (position.getFullmoveNumber() & 0xFFFFFFFFL) << 28;
+    }
+
+    private static void putLong(ByteBuffer buffer, int index, long value) {
+        buffer.putLong(index, buffer.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value));
+    }
+
+    private static long getLong(ByteBuffer buffer, int index) {
+        long value = buffer.getLong(index);
+        return buffer.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value);
+    }
+}
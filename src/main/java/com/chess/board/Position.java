@@ -0,0 +1,684 @@
+package com.chess.board;
+
+import java.util.Arrays;
+
+import com.chess.pieces.Bishop;
+import com.chess.pieces.King;
+import com.chess.pieces.Knight;
+import com.chess.pieces.Pawn;
+import com.chess.pieces.Piece;
+import com.chess.pieces.Queen;
+import com.chess.pieces.Rook;
+
+/**
+ * Bitboard representation of a chess position
+ *
+ * Squares are numbered row * 8 + col with the same orientation as Board,
+ * so square 0 is a8, square 7 is h8 and square 63 is h1. Every piece type of
+ * every color has its own 64-bit set, and a 64 entry mailbox of piece codes
+ * (color | type, the same binary layout the Piece classes use) is kept in sync
+ * so the piece on a square can be read without scanning the sets.
+ */
+public class Position {
+
+    // Colors and piece types use the same values as the Piece classes
+    public static final int EMPTY = 0;
+    public static final int WHITE = 8;
+    public static final int BLACK = 16;
+
+    public static final int PAWN = 1;
+    public static final int ROOK = 2;
+    public static final int KNIGHT = 3;
+    public static final int BISHOP = 4;
+    public static final int QUEEN = 5;
+    public static final int KING = 6;
+
+    // Castling rights bit flags
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    public static final int ALL_CASTLING = 15;
+
+    public static final int NO_SQUARE = -1;
+
+    // Castling rights kept when a move touches a square (king and rook home squares clear theirs)
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, ALL_CASTLING);
+        CASTLING_MASK[0] &= ~BLACK_QUEENSIDE;                  // a8
+        CASTLING_MASK[7] &= ~BLACK_KINGSIDE;                   // h8
+        CASTLING_MASK[4] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE); // e8
+        CASTLING_MASK[56] &= ~WHITE_QUEENSIDE;                 // a1
+        CASTLING_MASK[63] &= ~WHITE_KINGSIDE;                  // h1
+        CASTLING_MASK[60] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE); // e1
+    }
+
+    // One set per piece: index 0-5 white pawn..king, 6-11 black pawn..king
+    private final long[] pieceSets = new long[12];
+    // Occupancy per color: index 0 white, 1 black
+    private final long[] colorSets = new long[2];
+    private long occupied;
+    private final int[] mailbox = new int[64];
+    // Kept up to date by putPiece and removePiece, indexed by color index
+    private final int[] kingSquares = {NO_SQUARE, NO_SQUARE};
+
+    private int sideToMove = WHITE;
+    private int castlingRights;
+    private int enPassantSquare = NO_SQUARE;
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+
+    // Zobrist key of the current position, kept up to date on every change
+    private long key;
+    // Zobrist key of the pawns alone, for caching pawn structure evaluation
+    private long pawnKey;
+
+    // Material + piece-square totals (white minus black) and game phase, kept up to date by putPiece and removePiece
+    private int midgameScore;
+    private int endgameScore;
+    private int phase;
+
+    // Undo records of the moves played so far, one packed int per move:
+    // bits 0-4 captured piece, 5-11 en passant square + 1, 12-15 castling rights, 16-31 halfmove clock
+    private int[] undoStack = new int[256];
+    // Zobrist key before each move, for unmake and repetition detection
+    private long[] keyHistory = new long[256];
+    private int undoCount;
+
+    public Position() {
+    }
+
+    /**
+     * Creates an independent copy of another position
+     * @param other The position to copy
+     */
+    public Position(Position other) {
+        System.arraycopy(other.pieceSets, 0, pieceSets, 0, pieceSets.length);
+        System.arraycopy(other.colorSets, 0, colorSets, 0, colorSets.length);
+        System.arraycopy(other.mailbox, 0, mailbox, 0, mailbox.length);
+        System.arraycopy(other.kingSquares, 0, kingSquares, 0, kingSquares.length);
+        this.occupied = other.occupied;
+        this.sideToMove = other.sideToMove;
+        this.castlingRights = other.castlingRights;
+        this.enPassantSquare = other.enPassantSquare;
+        this.halfmoveClock = other.halfmoveClock;
+        this.fullmoveNumber = other.fullmoveNumber;
+        this.key = other.key;
+        this.pawnKey = other.pawnKey;
+        this.midgameScore = other.midgameScore;
+        this.endgameScore = other.endgameScore;
+        this.phase = other.phase;
+        this.undoStack = Arrays.copyOf(other.undoStack, other.undoStack.length);
+        this.keyHistory = Arrays.copyOf(other.keyHistory, other.keyHistory.length);
+        this.undoCount = other.undoCount;
+    }
+
+    /**
+     * Builds a position from a parsed FEN
+     * @param fenData The output of TranslateFen.translateFenComplete
+     * @return A new position holding the same pieces and game state
+     */
+    public static Position fromFenData(TranslateFen.FenData fenData) {
+        Position position = new Position();
+        Board board = fenData.getBoard();
+
+        for (int row = 0; row < Board.ROWS; row++) {
+            for (int col = 0; col < Board.COLS; col++) {
+                Piece piece = board.getPiece(row, col);
+                if (piece != null && piece.getColor() != EMPTY) {
+                    position.putPiece(square(row, col), piece.getColor() | piece.getPIECE_TYPE());
+                }
+            }
+        }
+
+        position.sideToMove = fenData.getActiveColor();
+        position.castlingRights = 0;
+        if (fenData.canWhiteCastleKingside()) position.castlingRights |= WHITE_KINGSIDE;
+        if (fenData.canWhiteCastleQueenside()) position.castlingRights |= WHITE_QUEENSIDE;
+        if (fenData.canBlackCastleKingside()) position.castlingRights |= BLACK_KINGSIDE;
+        if (fenData.canBlackCastleQueenside()) position.castlingRights |= BLACK_QUEENSIDE;
+        position.enPassantSquare = parseSquare(fenData.getEnPassantTarget());
+        position.halfmoveClock = fenData.getHalfmoveClock();
+        position.fullmoveNumber = fenData.getFullmoveNumber();
+        position.key = position.computeKey();
+        return position;
+    }
+
+    /**
+     * Builds a position from a complete FEN string
+     * @param fen The FEN string to parse
+     * @return A new position
+     */
+    public static Position fromFen(String fen) {
+        return fromFenData(TranslateFen.translateFenComplete(fen));
+    }
+
+    /**
+     * Builds a position from a Board used by the UI and rule handler
+     * Castling rights are derived from the King and Rook moved flags.
+     * @param board The board to read
+     * @param sideToMove The color to move (WHITE or BLACK)
+     * @param enPassantSquare The en passant target square, or NO_SQUARE
+     * @return A new position holding the same pieces
+     */
+    public static Position fromBoard(Board board, int sideToMove, int enPassantSquare) {
+        Position position = new Position();
+
+        for (int row = 0; row < Board.ROWS; row++) {
+            for (int col = 0; col < Board.COLS; col++) {
+                Piece piece = board.getPiece(row, col);
+                if (piece != null && piece.getColor() != EMPTY) {
+                    position.putPiece(square(row, col), piece.getColor() | piece.getPIECE_TYPE());
+                }
+            }
+        }
+
+        position.sideToMove = sideToMove;
+        position.castlingRights = castlingRightsFromBoard(board);
+        position.enPassantSquare = enPassantSquare;
+        position.key = position.computeKey();
+        return position;
+    }
+
+    /**
+     * Reads castling rights from unmoved kings and rooks on their home squares
+     */
+    private static int castlingRightsFromBoard(Board board) {
+        int rights = 0;
+        if (isUnmovedKing(board.getPiece(7, 4), WHITE)) {
+            if (isUnmovedRook(board.getPiece(7, 7), WHITE)) rights |= WHITE_KINGSIDE;
+            if (isUnmovedRook(board.getPiece(7, 0), WHITE)) rights |= WHITE_QUEENSIDE;
+        }
+        if (isUnmovedKing(board.getPiece(0, 4), BLACK)) {
+            if (isUnmovedRook(board.getPiece(0, 7), BLACK)) rights |= BLACK_KINGSIDE;
+            if (isUnmovedRook(board.getPiece(0, 0), BLACK)) rights |= BLACK_QUEENSIDE;
+        }
+        return rights;
+    }
+
+    private static boolean isUnmovedKing(Piece piece, int color) {
+        return piece instanceof King king && king.getColor() == color && !king.hasMoved();
+    }
+
+    private static boolean isUnmovedRook(Piece piece, int color) {
+        return piece instanceof Rook rook && rook.getColor() == color && !rook.hasMoved();
+    }
+
+    /**
+     * Converts this position back into a Board of Piece objects for the UI
+     * @return A new Board with the same piece placement
+     */
+    public Board toBoard() {
+        Board board = new Board();
+
+        for (int sq = 0; sq < 64; sq++) {
+            board.setPiece(row(sq), col(sq), createPiece(sq));
+        }
+
+        return board;
+    }
+
+    /**
+     * Converts this position into a FenData object
+     * @return A FenData holding a new Board and this position's game state
+     */
+    public TranslateFen.FenData toFenData() {
+        TranslateFen.FenData fenData = new TranslateFen.FenData(toBoard());
+        fenData.setActiveColor(sideToMove);
+        fenData.setWhiteCastleKingside((castlingRights & WHITE_KINGSIDE) != 0);
+        fenData.setWhiteCastleQueenside((castlingRights & WHITE_QUEENSIDE) != 0);
+        fenData.setBlackCastleKingside((castlingRights & BLACK_KINGSIDE) != 0);
+        fenData.setBlackCastleQueenside((castlingRights & BLACK_QUEENSIDE) != 0);
+        fenData.setEnPassantTarget(squareToString(enPassantSquare));
+        fenData.setHalfmoveClock(halfmoveClock);
+        fenData.setFullmoveNumber(fullmoveNumber);
+        return fenData;
+    }
+
+    /**
+     * Gets the complete FEN string for this position
+     * @return The FEN string
+     */
+    public String toFen() {
+        return TranslateFen.fenDataToString(toFenData());
+    }
+
+    /**
+     * Places a piece on an empty square
+     * @param sq The square index
+     * @param piece The piece code (color | type)
+     */
+    public void putPiece(int sq, int piece) {
+        long bit = 1L << sq;
+        int index = pieceIndex(piece);
+        pieceSets[index] |= bit;
+        colorSets[colorIndex(piece)] |= bit;
+        occupied |= bit;
+        mailbox[sq] = piece;
+        key ^= Zobrist.piece(piece, sq);
+        if ((piece & 7) == PAWN) {
+            pawnKey ^= Zobrist.piece(piece, sq);
+        }
+        midgameScore += PieceSquareTables.midgame(index, sq);
+        endgameScore += PieceSquareTables.endgame(index, sq);
+        phase += PieceSquareTables.phaseWeight(piece & 7);
+        if ((piece & 7) == KING) {
+            kingSquares[colorIndex(piece)] = sq;
+        }
+    }
+
+    /**
+     * Removes whatever piece stands on a square
+     * @param sq The square index
+     * @return The removed piece code, or EMPTY
+     */
+    public int removePiece(int sq) {
+        int piece = mailbox[sq];
+        if (piece != EMPTY) {
+            long bit = ~(1L << sq);
+            int index = pieceIndex(piece);
+            pieceSets[index] &= bit;
+            colorSets[colorIndex(piece)] &= bit;
+            occupied &= bit;
+            mailbox[sq] = EMPTY;
+            key ^= Zobrist.piece(piece, sq);
+            if ((piece & 7) == PAWN) {
+                pawnKey ^= Zobrist.piece(piece, sq);
+            }
+            midgameScore -= PieceSquareTables.midgame(index, sq);
+            endgameScore -= PieceSquareTables.endgame(index, sq);
+            phase -= PieceSquareTables.phaseWeight(piece & 7);
+            if ((piece & 7) == KING && kingSquares[colorIndex(piece)] == sq) {
+                kingSquares[colorIndex(piece)] = NO_SQUARE;
+            }
+        }
+        return piece;
+    }
+
+    /**
+     * Removes every piece and resets the game state to defaults
+     */
+    public void clear() {
+        Arrays.fill(pieceSets, 0L);
+        Arrays.fill(mailbox, EMPTY);
+        Arrays.fill(kingSquares, NO_SQUARE);
+        colorSets[0] = 0L;
+        colorSets[1] = 0L;
+        occupied = 0L;
+        sideToMove = WHITE;
+        castlingRights = 0;
+        enPassantSquare = NO_SQUARE;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        key = 0L;
+        pawnKey = 0L;
+        midgameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+        undoCount = 0;
+    }
+
+    // Getters
+    public int getPiece(int sq) { return mailbox[sq]; }
+    public long getPieces(int color, int type) { return pieceSets[colorIndex(color) * 6 + type - 1]; }
+    public long getPieces(int color) { return colorSets[colorIndex(color)]; }
+    public long getOccupied() { return occupied; }
+    public int getSideToMove() { return sideToMove; }
+    public int getCastlingRights() { return castlingRights; }
+    public int getEnPassantSquare() { return enPassantSquare; }
+    public int getHalfmoveClock() { return halfmoveClock; }
+    public int getFullmoveNumber() { return fullmoveNumber; }
+    public long getKey() { return key; }
+    public long getPawnKey() { return pawnKey; }
+    public int getMidgameScore() { return midgameScore; }
+    public int getEndgameScore() { return endgameScore; }
+    public int getPhase() { return phase; }
+
+    // Setters (the key follows every change)
+    public void setSideToMove(int color) {
+        if (color != sideToMove) {
+            key ^= Zobrist.side();
+        }
+        this.sideToMove = color;
+    }
+
+    public void setCastlingRights(int rights) {
+        key ^= Zobrist.castling(castlingRights) ^ Zobrist.castling(rights);
+        this.castlingRights = rights;
+    }
+
+    public void setEnPassantSquare(int sq) {
+        key ^= Zobrist.enPassant(enPassantSquare) ^ Zobrist.enPassant(sq);
+        this.enPassantSquare = sq;
+    }
+
+    public void setHalfmoveClock(int clock) { this.halfmoveClock = clock; }
+    public void setFullmoveNumber(int number) { this.fullmoveNumber = number; }
+
+    /**
+     * Gets the square of a color's king
+     * @param color The king's color
+     * @return The king's square, or NO_SQUARE if there is none
+     */
+    public int getKingSquare(int color) {
+        return kingSquares[colorIndex(color)];
+    }
+
+    /**
+     * Checks if the side to move is in check
+     */
+    public boolean isInCheck() {
+        int kingSquare = kingSquares[colorIndex(sideToMove)];
+        return kingSquare != NO_SQUARE && isSquareAttacked(kingSquare, opposite(sideToMove));
+    }
+
+    /**
+     * Gets every piece of a color that attacks a square
+     * @param sq The square to check
+     * @param byColor The attacking color
+     * @param occupied The occupied squares to use for sliding attacks (lets a piece be removed first)
+     * @return The attacking pieces
+     */
+    public long attackersTo(int sq, int byColor, long occupied) {
+        long queens = getPieces(byColor, QUEEN);
+        return (Attacks.pawnAttacks(opposite(byColor), sq) & getPieces(byColor, PAWN))
+             | (Attacks.knightAttacks(sq) & getPieces(byColor, KNIGHT))
+             | (Attacks.kingAttacks(sq) & getPieces(byColor, KING))
+             | (Attacks.bishopAttacks(sq, occupied) & (getPieces(byColor, BISHOP) | queens))
+             | (Attacks.rookAttacks(sq, occupied) & (getPieces(byColor, ROOK) | queens));
+    }
+
+    /**
+     * Checks if a square is attacked by any piece of a color
+     * @param sq The square to check
+     * @param byColor The attacking color
+     * @return true if at least one piece of byColor attacks the square
+     */
+    public boolean isSquareAttacked(int sq, int byColor) {
+        // A square is attacked by a pawn if a pawn of the other color on it would attack that pawn
+        if ((Attacks.pawnAttacks(opposite(byColor), sq) & getPieces(byColor, PAWN)) != 0) return true;
+        if ((Attacks.knightAttacks(sq) & getPieces(byColor, KNIGHT)) != 0) return true;
+        if ((Attacks.kingAttacks(sq) & getPieces(byColor, KING)) != 0) return true;
+
+        long queens = getPieces(byColor, QUEEN);
+        long diagonal = getPieces(byColor, BISHOP) | queens;
+        if (diagonal != 0 && (Attacks.bishopAttacks(sq, occupied) & diagonal) != 0) return true;
+        long straight = getPieces(byColor, ROOK) | queens;
+        return straight != 0 && (Attacks.rookAttacks(sq, occupied) & straight) != 0;
+    }
+
+    /**
+     * Plays a move in place
+     * The state needed to take it back is pushed on the undo stack.
+     * @param move The encoded move
+     */
+    public void makeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int us = sideToMove;
+        int piece = mailbox[from];
+
+        if (undoCount == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoStack.length * 2);
+            keyHistory = Arrays.copyOf(keyHistory, keyHistory.length * 2);
+        }
+        keyHistory[undoCount] = key;
+        int undo = ((enPassantSquare + 1) << 5) | (castlingRights << 12) | (halfmoveClock << 16);
+
+        // The en passant victim sits beside the target square, behind it from the mover's view
+        int captured;
+        if (Move.isEnPassant(move)) {
+            captured = removePiece(to + (us == WHITE ? 8 : -8));
+        } else {
+            captured = removePiece(to);
+        }
+
+        removePiece(from);
+        int promotion = Move.promotion(move);
+        putPiece(to, promotion != 0 ? us | promotion : piece);
+
+        // Castling also moves the rook next to the king
+        if (Move.isCastle(move)) {
+            if (to > from) {
+                putPiece(to - 1, removePiece(to + 1));
+            } else {
+                putPiece(to + 1, removePiece(to - 2));
+            }
+        }
+
+        int rights = castlingRights & CASTLING_MASK[from] & CASTLING_MASK[to];
+        int epSquare = Move.isDoublePush(move) ? (from + to) / 2 : NO_SQUARE;
+        key ^= Zobrist.castling(castlingRights) ^ Zobrist.castling(rights)
+             ^ Zobrist.enPassant(enPassantSquare) ^ Zobrist.enPassant(epSquare)
+             ^ Zobrist.side();
+        castlingRights = rights;
+        enPassantSquare = epSquare;
+        halfmoveClock = ((piece & 7) == PAWN || captured != EMPTY) ? 0 : halfmoveClock + 1;
+        if (us == BLACK) {
+            fullmoveNumber++;
+        }
+        sideToMove = opposite(us);
+        undoStack[undoCount++] = undo | captured;
+    }
+
+    /**
+     * Passes the turn without moving (for null move pruning)
+     * The en passant square is cleared and, as the position cannot repeat one
+     * from before the pass, the halfmove clock restarts.
+     */
+    public void makeNullMove() {
+        if (undoCount == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoStack.length * 2);
+            keyHistory = Arrays.copyOf(keyHistory, keyHistory.length * 2);
+        }
+        keyHistory[undoCount] = key;
+        undoStack[undoCount++] = ((enPassantSquare + 1) << 5) | (castlingRights << 12) | (halfmoveClock << 16);
+
+        key ^= Zobrist.enPassant(enPassantSquare) ^ Zobrist.side();
+        enPassantSquare = NO_SQUARE;
+        halfmoveClock = 0;
+        sideToMove = opposite(sideToMove);
+    }
+
+    /**
+     * Takes back the last makeNullMove
+     */
+    public void unmakeNullMove() {
+        int undo = undoStack[--undoCount];
+        sideToMove = opposite(sideToMove);
+        enPassantSquare = ((undo >>> 5) & 127) - 1;
+        halfmoveClock = undo >>> 16;
+        key = keyHistory[undoCount];
+    }
+
+    /**
+     * Takes back the last move played with makeMove
+     * @param move The same encoded move that was passed to makeMove
+     */
+    public void unmakeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int undo = undoStack[--undoCount];
+        int us = opposite(sideToMove);
+
+        sideToMove = us;
+        if (us == BLACK) {
+            fullmoveNumber--;
+        }
+        enPassantSquare = ((undo >>> 5) & 127) - 1;
+        castlingRights = (undo >>> 12) & 15;
+        halfmoveClock = undo >>> 16;
+
+        // Put the rook back in its corner
+        if (Move.isCastle(move)) {
+            if (to > from) {
+                putPiece(to + 1, removePiece(to - 1));
+            } else {
+                putPiece(to - 2, removePiece(to + 1));
+            }
+        }
+
+        // A promoted piece turns back into a pawn
+        int piece = removePiece(to);
+        putPiece(from, Move.promotion(move) != 0 ? us | PAWN : piece);
+
+        int captured = undo & 31;
+        if (captured != EMPTY) {
+            if (Move.isEnPassant(move)) {
+                putPiece(to + (us == WHITE ? 8 : -8), captured);
+            } else {
+                putPiece(to, captured);
+            }
+        }
+
+        // The piece moves above changed the key; the saved one is exact
+        key = keyHistory[undoCount];
+    }
+
+    /**
+     * Checks if the current position already occurred since the last
+     * capture or pawn move (same side to move, same key)
+     * @return true if the position is a repetition
+     */
+    public boolean isRepetition() {
+        int earliest = Math.max(0, undoCount - halfmoveClock);
+        for (int i = undoCount - 2; i >= earliest; i -= 2) {
+            if (keyHistory[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes the Zobrist key from scratch
+     * @return The key of the current position
+     */
+    public long computeKey() {
+        long hash = 0L;
+        for (int sq = 0; sq < 64; sq++) {
+            if (mailbox[sq] != EMPTY) {
+                hash ^= Zobrist.piece(mailbox[sq], sq);
+            }
+        }
+        if (sideToMove == BLACK) {
+            hash ^= Zobrist.side();
+        }
+        return hash ^ Zobrist.castling(castlingRights) ^ Zobrist.enPassant(enPassantSquare);
+    }
+
+    /**
+     * Gets the number of moves that can currently be taken back
+     */
+    public int getMoveCount() {
+        return undoCount;
+    }
+
+    /**
+     * Creates the Piece object the Board expects for a square
+     */
+    private Piece createPiece(int sq) {
+        int piece = mailbox[sq];
+        int color = piece & (WHITE | BLACK);
+
+        switch (piece & 7) {
+            case PAWN:
+                Pawn pawn = new Pawn(color);
+                // A pawn still on its starting row has not moved yet
+                pawn.setFirstMove(row(sq) == (color == WHITE ? 6 : 1));
+                return pawn;
+            case ROOK:
+                Rook rook = new Rook(color);
+                rook.setMoved(!isCastlingRook(sq, color));
+                return rook;
+            case KNIGHT:
+                return new Knight(color);
+            case BISHOP:
+                return new Bishop(color);
+            case QUEEN:
+                return new Queen(color);
+            case KING:
+                King king = new King(color);
+                int rights = color == WHITE ? (WHITE_KINGSIDE | WHITE_QUEENSIDE) : (BLACK_KINGSIDE | BLACK_QUEENSIDE);
+                king.setMoved((castlingRights & rights) == 0);
+                return king;
+            default:
+                return new Piece(EMPTY, 0);
+        }
+    }
+
+    /**
+     * Checks if a rook stands on a corner that still has castling rights
+     */
+    private boolean isCastlingRook(int sq, int color) {
+        if (color == WHITE) {
+            return (sq == 63 && (castlingRights & WHITE_KINGSIDE) != 0)
+                || (sq == 56 && (castlingRights & WHITE_QUEENSIDE) != 0);
+        }
+        return (sq == 7 && (castlingRights & BLACK_KINGSIDE) != 0)
+            || (sq == 0 && (castlingRights & BLACK_QUEENSIDE) != 0);
+    }
+
+    /**
+     * Gets the index of a color's occupancy set (0 white, 1 black)
+     */
+    public static int colorIndex(int piece) {
+        return (piece >> 4) & 1;
+    }
+
+    /**
+     * Gets the index of a piece code's set (0-11)
+     */
+    public static int pieceIndex(int piece) {
+        return colorIndex(piece) * 6 + (piece & 7) - 1;
+    }
+
+    /**
+     * Gets the other color
+     */
+    public static int opposite(int color) {
+        return color ^ (WHITE | BLACK);
+    }
+
+    public static int square(int row, int col) {
+        return row * 8 + col;
+    }
+
+    public static int row(int sq) {
+        return sq >> 3;
+    }
+
+    public static int col(int sq) {
+        return sq & 7;
+    }
+
+    /**
+     * Converts a square index to algebraic notation
+     * @param sq The square index, or NO_SQUARE
+     * @return The square name (e.g., "e3"), or "-" for NO_SQUARE
+     */
+    public static String squareToString(int sq) {
+        if (sq == NO_SQUARE) {
+            return "-";
+        }
+        return "" + (char) ('a' + col(sq)) + (8 - row(sq));
+    }
+
+    /**
+     * Converts algebraic notation to a square index
+     * @param name The square name (e.g., "e3") or "-"
+     * @return The square index, or NO_SQUARE for "-" or null
+     */
+    public static int parseSquare(String name) {
+        if (name == null || "-".equals(name)) {
+            return NO_SQUARE;
+        }
+        if (name.length() != 2 || name.charAt(0) < 'a' || name.charAt(0) > 'h'
+                || name.charAt(1) < '1' || name.charAt(1) > '8') {
+            throw new IllegalArgumentException("Invalid square: " + name);
+        }
+        return square(8 - (name.charAt(1) - '0'), name.charAt(0) - 'a');
+    }
+}
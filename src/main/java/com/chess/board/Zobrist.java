@@ -0,0 +1,71 @@
+package com.chess.board;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random 64-bit keys for Zobrist hashing of positions
+ *
+ * A position's key is the XOR of one key per (piece, square), the side key
+ * when black is to move, the key of the current castling rights and the key
+ * of the en passant file when an en passant square is set. Because XOR is its
+ * own inverse, Position updates the key incrementally as pieces move instead
+ * of rebuilding it. The keys come from a fixed seed so they are identical in
+ * every run and can be stored.
+ */
+public final class Zobrist {
+
+    private static final long SEED = 0x5EED_C4E5_5B0A_4D01L;
+
+    // Indexed by [Position.pieceIndex(piece)][square]
+    private static final long[][] PIECES = new long[12][64];
+    // Indexed by the castling rights bit set (0-15), no rights hash to 0
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long SIDE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (long[] squares : PIECES) {
+            for (int sq = 0; sq < 64; sq++) {
+                squares[sq] = random.nextLong();
+            }
+        }
+        for (int i = 1; i < CASTLING.length; i++) {
+            CASTLING[i] = random.nextLong();
+        }
+        for (int i = 0; i < EN_PASSANT_FILE.length; i++) {
+            EN_PASSANT_FILE[i] = random.nextLong();
+        }
+        SIDE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Gets the key of a piece on a square
+     * @param piece The piece code (color | type)
+     * @param sq The square index
+     */
+    public static long piece(int piece, int sq) {
+        return PIECES[Position.pieceIndex(piece)][sq];
+    }
+
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /**
+     * Gets the key of an en passant square (only its file matters), 0 for NO_SQUARE
+     */
+    public static long enPassant(int sq) {
+        return sq == Position.NO_SQUARE ? 0L : EN_PASSANT_FILE[Position.col(sq)];
+    }
+
+    /**
+     * Gets the key toggled when black is to move
+     */
+    public static long side() {
+        return SIDE;
+    }
+}
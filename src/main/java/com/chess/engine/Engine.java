@@ -1,51 +1,226 @@
 package com.chess.engine;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
 import com.chess.board.Board;
-import com.chess.pieces.Piece;
-import com.chess.utils.RuleHandler;
+import com.chess.board.Position;
 
 public class Engine {
-    private final Board board;
-    private final RuleHandler ruleHandler;
-    
-    private final int WHITE = 8;
-    private final int BLACK = 16;
-    private final int EMPTY = 0;
-    private final int PAWN = 1;
-    private final int KNIGHT = 2;
-    private final int BISHOP = 3;
-    private final int ROOK = 4;
-    private final int QUEEN = 5;
-    private final int KING = 6;
-
-    private final int[][] PIECE_VALUES = {
-        {100, 300, 300, 500, 900, 10000},
-        {100, 300, 300, 500, 900, 10000}
+
+    // indexed by [color index (0 white, 1 black)][piece type - 1], same type order as the Piece classes
+    static final int[][] PIECE_VALUES = {
+        {100, 500, 300, 300, 900, 10000},
+        {100, 500, 300, 300, 900, 10000}
     };
-    
-    private int currentTurn = WHITE; // 8 = white starts, 16 = black
-    private double evaluation = 0;
 
+    public static final int DEFAULT_HASH_MB = 16;
 
+    private final TranspositionTable transpositionTable = new TranspositionTable(DEFAULT_HASH_MB);
+    private volatile Evaluator evaluator = new PieceSquareEvaluator();
+    private volatile SearchOptions searchOptions = new SearchOptions();
+    // searches[0] runs on the caller's thread, the others on helperPool
+    private Search[] searches;
+    private ExecutorService helperPool;
+
+    public Engine() {
+        setThreads(1);
+    }
 
+    /**
+     * @param board Not used, kept for existing callers (evaluatePosition takes the board to evaluate)
+     */
     public Engine(Board board) {
-        this.board = board;
-        this.ruleHandler = new RuleHandler();
-        this.evaluation = 0;
-        this.currentTurn = 8;
+        this();
     }
 
-    public double evaluatePosition(Board board) {
-        // evaluate the position
-        for (int i = 0; i < Board.ROWS; i++) {
-            for (int j = 0; j < Board.COLS; j++) {
-                Piece piece = board.getPiece(i, j);
-                if (piece != null) {
-                    evaluation += PIECE_VALUES[piece.getColor()][piece.getPIECE_TYPE()];
+    /**
+     * Searches a position for the best move
+     * @param position The position to search (not modified)
+     * @param limits The depth, time and node budget
+     * @return The result of the deepest completed iteration
+     */
+    public SearchResult bestMove(Position position, SearchLimits limits) {
+        return bestMove(position, limits, null);
+    }
+
+    /**
+     * Searches a position for the best move, reporting every completed iteration
+     * A stop() sent before the call is kept, so the search returns right away with
+     * its first move; the stop state is cleared again when the search ends.
+     * @param position The position to search (not modified)
+     * @param limits The depth, time and node budget
+     * @param listener Called with the result of every completed iteration, may be null
+     * @return The result of the deepest completed iteration
+     */
+    public SearchResult bestMove(Position position, SearchLimits limits, Consumer<SearchResult> listener) {
+        long start = System.currentTimeMillis();
+        // Once per search, before any thread stores, so all threads write entries of the same age
+        transpositionTable.newSearch();
+
+        // Helpers search without limits until the main search is done (Lazy SMP)
+        Future<?>[] helpers = new Future<?>[searches.length - 1];
+        for (int i = 1; i < searches.length; i++) {
+            Search helper = searches[i];
+            helpers[i - 1] = helperPool.submit(() -> helper.search(position, SearchLimits.infinite(), null));
+        }
+
+        SearchResult result;
+        try {
+            result = searches[0].search(position, limits, listener);
+        } finally {
+            for (int i = 1; i < searches.length; i++) {
+                searches[i].stop();
+            }
+            waitFor(helpers);
+            resetStop();
+        }
+
+        // Report the nodes of every thread, including those searched after the last iteration
+        if (searches.length > 1 && result != null) {
+            result = new SearchResult(result.getBestMove(), result.getScore(), result.getDepth(),
+                getSearchedNodes(), System.currentTimeMillis() - start, result.getPrincipalVariation());
+        }
+        return result;
+    }
+
+    private static void waitFor(Future<?>[] helpers) {
+        boolean interrupted = false;
+        for (Future<?> helper : helpers) {
+            while (true) {
+                try {
+                    helper.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Search thread failed", e.getCause());
                 }
             }
         }
-        return evaluation;
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops a running search on every thread; bestMove then returns its current result
+     */
+    public void stop() {
+        for (Search search : searches) {
+            search.stop();
+        }
+    }
+
+    /**
+     * Clears a stop request left from before, so the next search runs to its limits
+     * Call it on the thread that starts the search, before starting it: a stop sent
+     * after this call is then kept even if the search has not begun yet.
+     */
+    public void resetStop() {
+        for (Search search : searches) {
+            search.reset();
+        }
+    }
+
+    /**
+     * Sets the number of search threads (not while a search is running)
+     * @param threads The number of threads, at least 1
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1: " + threads);
+        }
+        if (helperPool != null) {
+            helperPool.shutdown();
+            helperPool = null;
+        }
+        searches = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new Search(this, i);
+        }
+        if (threads > 1) {
+            helperPool = Executors.newFixedThreadPool(threads - 1, runnable -> {
+                Thread thread = new Thread(runnable, "search-helper");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public int getThreads() {
+        return searches.length;
+    }
+
+    /**
+     * Gets the nodes searched by all threads in the current or last search
+     */
+    public long getSearchedNodes() {
+        long total = 0;
+        for (Search search : searches) {
+            total += search.getNodes();
+        }
+        return total;
+    }
+
+    /**
+     * Resizes the transposition table (clears it)
+     * @param sizeMb The size in megabytes
+     */
+    public void setHashSize(int sizeMb) {
+        transpositionTable.resize(sizeMb);
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    /**
+     * Replaces the evaluation used by search and evaluatePosition
+     * @param evaluator The evaluator (see Evaluator.forName for the built-in ones)
+     */
+    public void setEvaluator(Evaluator evaluator) {
+        if (evaluator == null) {
+            throw new IllegalArgumentException("Evaluator must not be null");
+        }
+        this.evaluator = evaluator;
+    }
+
+    public Evaluator getEvaluator() {
+        return evaluator;
+    }
+
+    /**
+     * Sets which selective search techniques the next searches use
+     * @param options The switches (copied, later changes to the object have no effect)
+     */
+    public void setSearchOptions(SearchOptions options) {
+        this.searchOptions = new SearchOptions(options);
+    }
+
+    public SearchOptions getSearchOptions() {
+        return new SearchOptions(searchOptions);
+    }
+
+    /**
+     * Evaluates a position with the current evaluator
+     * @param position The position to evaluate
+     * @return The score in centipawns from the side to move's point of view
+     */
+    public int evaluate(Position position) {
+        return evaluator.evaluate(position);
+    }
+
+    /**
+     * Evaluates a board with the current evaluator
+     * @param board The board to evaluate
+     * @return The score in centipawns, positive when white is ahead
+     */
+    public double evaluatePosition(Board board) {
+        return evaluate(Position.fromBoard(board, Position.WHITE, Position.NO_SQUARE));
     }
 
 }
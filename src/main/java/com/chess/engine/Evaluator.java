@@ -0,0 +1,52 @@
+package com.chess.engine;
+
+import com.chess.board.Position;
+
+/**
+ * Static evaluation of a position
+ *
+ * Implementations must not modify the position and must be safe to call from
+ * several search threads at once. Scores are in centipawns from the side to
+ * move's point of view, as the search expects.
+ */
+public interface Evaluator {
+
+    /**
+     * Evaluates a position
+     * @param position The position to evaluate
+     * @return The score in centipawns from the side to move's point of view
+     */
+    int evaluate(Position position);
+
+    /**
+     * Evaluates many positions in one call, without allocating
+     * @param positions The positions to evaluate
+     * @param scores Receives the score of positions[i] at index i
+     */
+    default void evaluateAll(Position[] positions, int[] scores) {
+        if (scores.length < positions.length) {
+            throw new IllegalArgumentException("Need " + positions.length + " scores, got " + scores.length);
+        }
+        for (int i = 0; i < positions.length; i++) {
+            scores[i] = evaluate(positions[i]);
+        }
+    }
+
+    /**
+     * Creates one of the built-in evaluators
+     * @param name "material", "pst" or "positional"
+     * @return A new evaluator
+     */
+    static Evaluator forName(String name) {
+        switch (name) {
+            case "material":
+                return new MaterialEvaluator();
+            case "pst":
+                return new PieceSquareEvaluator();
+            case "positional":
+                return new PositionalEvaluator();
+            default:
+                throw new IllegalArgumentException("Unknown evaluator: " + name + " (expected material, pst or positional)");
+        }
+    }
+}
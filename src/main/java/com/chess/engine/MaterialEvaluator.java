@@ -0,0 +1,20 @@
+package com.chess.engine;
+
+import com.chess.board.Position;
+
+/**
+ * Material-only evaluation using the engine's piece values
+ */
+public class MaterialEvaluator implements Evaluator {
+
+    @Override
+    public int evaluate(Position position) {
+        int score = 0;
+        for (int type = Position.PAWN; type < Position.KING; type++) {
+            int count = Long.bitCount(position.getPieces(Position.WHITE, type))
+                      - Long.bitCount(position.getPieces(Position.BLACK, type));
+            score += count * Engine.PIECE_VALUES[0][type - 1];
+        }
+        return position.getSideToMove() == Position.WHITE ? score : -score;
+    }
+}
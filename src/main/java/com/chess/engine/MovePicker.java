@@ -0,0 +1,155 @@
+package com.chess.engine;
+
+import com.chess.board.Move;
+import com.chess.board.MoveList;
+import com.chess.board.Position;
+
+/**
+ * Move ordering for one search thread
+ *
+ * Moves are tried in this order: the transposition table move, captures and
+ * queen promotions by MVV-LVA (most valuable victim, then least valuable
+ * attacker), the two killer moves of the ply, the remaining quiet moves by
+ * history score, and finally under-promotions.
+ *
+ * Every move of a ply gets a score once, and next() then selects the best
+ * remaining move on demand. A node that cuts off after a few moves never pays
+ * for sorting the rest of the list.
+ */
+public class MovePicker {
+
+    private static final int TT_MOVE = 1 << 30;
+    private static final int CAPTURE = 1 << 24;
+    private static final int FIRST_KILLER = (1 << 22) + 1;
+    private static final int SECOND_KILLER = 1 << 22;
+    // History scores are halved whenever one reaches this, so they stay below the killers
+    private static final int HISTORY_LIMIT = 1 << 20;
+    private static final int UNDER_PROMOTION = -1;
+
+    private final int[][] scores;
+    private final int[][] killers;
+    // Indexed by [Position.pieceIndex(piece)][to square]
+    private final int[][] history = new int[12][64];
+
+    /**
+     * @param maxPly The deepest ply that will be searched
+     */
+    public MovePicker(int maxPly) {
+        scores = new int[maxPly][MoveList.CAPACITY];
+        killers = new int[maxPly][2];
+    }
+
+    /**
+     * Prepares for a new search: killers are forgotten and history fades
+     */
+    public void newSearch() {
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = Move.NONE;
+            plyKillers[1] = Move.NONE;
+        }
+        for (int[] squares : history) {
+            for (int sq = 0; sq < 64; sq++) {
+                squares[sq] /= 8;
+            }
+        }
+    }
+
+    /**
+     * Scores every move of a ply for ordering
+     * @param moves The moves of the ply
+     * @param ply The distance from the root
+     * @param ttMove The transposition table move, or Move.NONE
+     */
+    public void score(MoveList moves, int ply, int ttMove) {
+        int[] plyScores = scores[ply];
+        int[] plyKillers = killers[ply];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int score;
+            if (move == ttMove) {
+                score = TT_MOVE;
+            } else if (Move.isCapture(move) || Move.promotion(move) == Position.QUEEN) {
+                score = CAPTURE + mvvLva(move);
+            } else if (Move.isPromotion(move)) {
+                score = UNDER_PROMOTION;
+            } else if (move == plyKillers[0]) {
+                score = FIRST_KILLER;
+            } else if (move == plyKillers[1]) {
+                score = SECOND_KILLER;
+            } else {
+                score = history[Position.pieceIndex(Move.piece(move))][Move.to(move)];
+            }
+            plyScores[i] = score;
+        }
+    }
+
+    /**
+     * Selects the best move not tried yet and swaps it into place
+     * @param moves The moves of the ply, scored with score()
+     * @param ply The distance from the root
+     * @param index The number of moves already tried
+     * @return The move now at index
+     */
+    public int next(MoveList moves, int ply, int index) {
+        int[] plyScores = scores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (plyScores[i] > plyScores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            int move = moves.get(best);
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            int score = plyScores[best];
+            plyScores[best] = plyScores[index];
+            plyScores[index] = score;
+        }
+        return moves.get(index);
+    }
+
+    /**
+     * Records a quiet move that caused a beta cutoff
+     * @param move The move
+     * @param ply The distance from the root
+     * @param depth The remaining depth of the node (deeper cutoffs count more)
+     */
+    public void updateCutoff(int move, int ply, int depth) {
+        int[] plyKillers = killers[ply];
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+
+        int[] squares = history[Position.pieceIndex(Move.piece(move))];
+        int to = Move.to(move);
+        squares[to] += depth * depth;
+        if (squares[to] >= HISTORY_LIMIT) {
+            for (int[] entries : history) {
+                for (int sq = 0; sq < 64; sq++) {
+                    entries[sq] /= 2;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if a move is ordered by the quiet move heuristics (killers and history)
+     */
+    public static boolean isQuiet(int move) {
+        return !Move.isCapture(move) && !Move.isPromotion(move);
+    }
+
+    /**
+     * Captures of the most valuable victim first, by the least valuable attacker among equal victims
+     */
+    private static int mvvLva(int move) {
+        int victim = Move.isCapture(move) ? Engine.PIECE_VALUES[0][(Move.captured(move) & 7) - 1] : 0;
+        if (Move.isPromotion(move)) {
+            victim += Engine.PIECE_VALUES[0][Move.promotion(move) - 1];
+        }
+        int attacker = Engine.PIECE_VALUES[0][(Move.piece(move) & 7) - 1];
+        return victim * 16 - attacker / 16;
+    }
+}
@@ -0,0 +1,123 @@
+package com.chess.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of pawn structure evaluations keyed by the pawn-only Zobrist key
+ *
+ * Pawns move rarely compared to other pieces, so most nodes of a search share
+ * their pawn structure with a neighbour and the expensive pawn terms are only
+ * computed on a miss. Like the transposition table the entries live in flat
+ * long arrays with no locking: checks holds key ^ score ^ passed, so an entry
+ * torn by two threads writing at once reads as a miss. A slot is always
+ * overwritten by the newest structure.
+ */
+public class PawnHashTable {
+
+    public static final int DEFAULT_SIZE_MB = 1;
+
+    private static final int BYTES_PER_ENTRY = 24;
+
+    private long[] checks;
+    private long[] scores;
+    private long[] passed;
+    private int mask;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    public PawnHashTable() {
+        this(DEFAULT_SIZE_MB);
+    }
+
+    /**
+     * Creates a table using at most the given amount of memory
+     * @param sizeMb The size in megabytes
+     */
+    public PawnHashTable(int sizeMb) {
+        resize(sizeMb);
+    }
+
+    /**
+     * Reallocates the table (all entries are lost)
+     * @param sizeMb The size in megabytes, rounded down to a power of two number of entries
+     */
+    public void resize(int sizeMb) {
+        if (sizeMb < 1) {
+            throw new IllegalArgumentException("Pawn hash size must be at least 1 MB: " + sizeMb);
+        }
+        long entries = Long.highestOneBit(sizeMb * 1024L * 1024L / BYTES_PER_ENTRY);
+        entries = Math.min(entries, 1L << 30);
+        checks = new long[(int) entries];
+        scores = new long[(int) entries];
+        passed = new long[(int) entries];
+        mask = (int) entries - 1;
+        resetStatistics();
+    }
+
+    public void clear() {
+        Arrays.fill(checks, 0L);
+        Arrays.fill(scores, 0L);
+        Arrays.fill(passed, 0L);
+    }
+
+    /**
+     * Looks up a pawn structure
+     * The words are read once and validated together, so the result is consistent
+     * even while another thread overwrites the slot.
+     * @param pawnKey The position's pawn key
+     * @param entry Receives the packed score at index 0 and the passed pawns at index 1 on a hit
+     * @return true if the structure was found
+     */
+    public boolean probe(long pawnKey, long[] entry) {
+        probes.increment();
+        int index = (int) pawnKey & mask;
+        long score = scores[index];
+        long passedPawns = passed[index];
+        // Stored scores always have the used bit, so an empty slot never validates
+        if (score != 0 && (checks[index] ^ score ^ passedPawns) == pawnKey) {
+            hits.increment();
+            entry[0] = (int) score;
+            entry[1] = passedPawns;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Stores a pawn structure evaluation
+     * @param pawnKey The position's pawn key
+     * @param score The packed pawn structure score (see Score)
+     * @param passedPawns The passed pawns of both colors
+     */
+    public void store(long pawnKey, int score, long passedPawns) {
+        int index = (int) pawnKey & mask;
+        // Bit 32 marks the slot as used so a zero score is still a valid entry
+        long data = (score & 0xFFFFFFFFL) | (1L << 32);
+        scores[index] = data;
+        passed[index] = passedPawns;
+        checks[index] = pawnKey ^ data ^ passedPawns;
+    }
+
+    public int getCapacity() {
+        return checks.length;
+    }
+
+    // Statistics
+    public long getProbes() { return probes.sum(); }
+    public long getHits() { return hits.sum(); }
+
+    /**
+     * Gets the share of probes that found their structure, 0 when nothing was probed
+     */
+    public double getHitRate() {
+        long total = probes.sum();
+        return total == 0 ? 0.0 : (double) hits.sum() / total;
+    }
+
+    public void resetStatistics() {
+        probes.reset();
+        hits.reset();
+    }
+}
@@ -0,0 +1,128 @@
+package com.chess.engine;
+
+import com.chess.board.Attacks;
+import com.chess.board.Position;
+
+/**
+ * Pawn structure terms: doubled, isolated, backward and passed pawns
+ *
+ * Everything here depends only on where the pawns stand, which is what makes
+ * the result cacheable by a pawn-only key.
+ */
+final class PawnStructure {
+
+    private static final int DOUBLED = Score.of(-10, -20);
+    private static final int ISOLATED = Score.of(-10, -15);
+    private static final int BACKWARD = Score.of(-8, -10);
+    // Passed pawn bonus by how many rows the pawn has advanced (0 = start row, 5 = one step from promoting)
+    private static final int[] PASSED = {
+        Score.of(0, 5), Score.of(5, 12), Score.of(10, 20), Score.of(20, 40), Score.of(40, 70), Score.of(65, 110)
+    };
+
+    private static final long[] FILES = new long[8];
+    private static final long[] ADJACENT_FILES = new long[8];
+    // Squares in front of a pawn on its own and the adjacent files, by [color index][square]
+    private static final long[][] PASSED_SPAN = new long[2][64];
+    // Squares beside and behind a pawn on the adjacent files, where a supporting pawn would stand
+    private static final long[][] SUPPORT_SPAN = new long[2][64];
+
+    static {
+        for (int col = 0; col < 8; col++) {
+            FILES[col] = Attacks.FILE_A << col;
+        }
+        for (int col = 0; col < 8; col++) {
+            ADJACENT_FILES[col] = (col > 0 ? FILES[col - 1] : 0L) | (col < 7 ? FILES[col + 1] : 0L);
+        }
+        for (int sq = 0; sq < 64; sq++) {
+            int row = Position.row(sq);
+            int col = Position.col(sq);
+            for (int other = 0; other < 64; other++) {
+                int r = Position.row(other);
+                int c = Position.col(other);
+                long bit = 1L << other;
+                if (Math.abs(c - col) <= 1) {
+                    // White moves towards row 0, black towards row 7
+                    if (r < row) PASSED_SPAN[0][sq] |= bit;
+                    if (r > row) PASSED_SPAN[1][sq] |= bit;
+                }
+                if (Math.abs(c - col) == 1) {
+                    if (r >= row) SUPPORT_SPAN[0][sq] |= bit;
+                    if (r <= row) SUPPORT_SPAN[1][sq] |= bit;
+                }
+            }
+        }
+    }
+
+    private PawnStructure() {
+    }
+
+    /**
+     * Scores the pawn structure
+     * @param whitePawns The white pawns
+     * @param blackPawns The black pawns
+     * @return The packed score (see Score), positive when white's structure is better
+     */
+    static int evaluate(long whitePawns, long blackPawns) {
+        return evaluate(Position.WHITE, whitePawns, blackPawns) - evaluate(Position.BLACK, blackPawns, whitePawns);
+    }
+
+    /**
+     * Finds the passed pawns of both colors
+     * @param whitePawns The white pawns
+     * @param blackPawns The black pawns
+     * @return Every pawn with no enemy pawn in front of it on its own or an adjacent file
+     */
+    static long passedPawns(long whitePawns, long blackPawns) {
+        return passedPawns(Position.WHITE, whitePawns, blackPawns) | passedPawns(Position.BLACK, blackPawns, whitePawns);
+    }
+
+    private static long passedPawns(int color, long own, long enemy) {
+        int colorIndex = Position.colorIndex(color);
+        long passed = 0L;
+        long pawns = own;
+        while (pawns != 0) {
+            int sq = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            if ((PASSED_SPAN[colorIndex][sq] & enemy) == 0) {
+                passed |= 1L << sq;
+            }
+        }
+        return passed;
+    }
+
+    private static int evaluate(int color, long own, long enemy) {
+        int colorIndex = Position.colorIndex(color);
+        int score = 0;
+
+        for (int col = 0; col < 8; col++) {
+            int count = Long.bitCount(own & FILES[col]);
+            if (count > 1) {
+                score += DOUBLED * (count - 1);
+            }
+        }
+
+        long pawns = own;
+        while (pawns != 0) {
+            int sq = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            int col = Position.col(sq);
+
+            if ((PASSED_SPAN[colorIndex][sq] & enemy) == 0) {
+                int advanced = color == Position.WHITE ? 6 - Position.row(sq) : Position.row(sq) - 1;
+                // Pawns on their own back rank or the promotion rank only occur in set-up positions
+                score += PASSED[Math.max(0, Math.min(PASSED.length - 1, advanced))];
+            }
+
+            if ((own & ADJACENT_FILES[col]) == 0) {
+                score += ISOLATED;
+            } else if ((own & SUPPORT_SPAN[colorIndex][sq]) == 0) {
+                // Nothing can support it, and an enemy pawn guards the square in front
+                int stop = sq + (color == Position.WHITE ? -8 : 8);
+                if (stop >= 0 && stop < 64 && (Attacks.pawnAttacks(color, stop) & enemy) != 0) {
+                    score += BACKWARD;
+                }
+            }
+        }
+        return score;
+    }
+}
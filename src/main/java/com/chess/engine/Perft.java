@@ -0,0 +1,187 @@
+package com.chess.engine;
+
+import java.util.Arrays;
+
+import com.chess.board.Move;
+import com.chess.board.MoveGenerator;
+import com.chess.board.MoveList;
+import com.chess.board.Position;
+import com.chess.board.TranslateFen;
+
+/**
+ * Perft (performance test) for the move generator
+ *
+ * Counts the leaf nodes of the legal move tree to a fixed depth. The counts
+ * are compared against published reference values to catch move generation
+ * bugs, and the nodes per second double as a throughput benchmark for
+ * generation and make/unmake.
+ *
+ * Usage:
+ *   perft <depth> [fen]    count leaf nodes
+ *   divide <depth> [fen]   count leaf nodes below every root move
+ *   suite [maxNodes]       check the reference positions (default 5,000,000 nodes each)
+ */
+public class Perft {
+
+    private static final int MAX_DEPTH = 64;
+    private static final long DEFAULT_SUITE_NODES = 5_000_000L;
+
+    /**
+     * Reference positions and their expected leaf counts for depth 1, 2, 3, ... (also used by PerftTest)
+     */
+    static final Object[][] REFERENCE_POSITIONS = {
+        {"Start position", TranslateFen.getStartingPositionFen(),
+            new long[] {20L, 400L, 8_902L, 197_281L, 4_865_609L, 119_060_324L}},
+        {"Kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            new long[] {48L, 2_039L, 97_862L, 4_085_603L, 193_690_690L}},
+        {"Position 3", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            new long[] {14L, 191L, 2_812L, 43_238L, 674_624L, 11_030_083L, 178_633_661L}},
+        {"Position 4", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            new long[] {6L, 264L, 9_467L, 422_333L, 15_833_292L}},
+        {"Position 4 mirrored", "r2q1rk1/pP1p2pp/Q4n2/bbp1p3/Np6/1B3NBn/pPPP1PPP/R3K2R b KQ - 0 1",
+            new long[] {6L, 264L, 9_467L, 422_333L, 15_833_292L}},
+        {"Position 5", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            new long[] {44L, 1_486L, 62_379L, 2_103_487L, 89_941_194L}},
+        {"Position 6", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            new long[] {46L, 2_079L, 89_890L, 3_894_594L, 164_075_551L}},
+    };
+
+    private final MoveList[] moveLists = MoveList.perPly(MAX_DEPTH);
+
+    /**
+     * Counts the leaf nodes of the legal move tree
+     * @param position The root position (restored when the call returns)
+     * @param depth The depth in plies
+     * @return The number of leaf nodes
+     */
+    public long perft(Position position, int depth) {
+        return perft(position, depth, 0);
+    }
+
+    private long perft(Position position, int depth, int ply) {
+        if (depth == 0) {
+            return 1;
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        MoveGenerator.generateLegalMoves(position, moves);
+
+        // Bulk counting: the legal moves at the last ply are the leaves
+        if (depth == 1) {
+            return moves.size();
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            position.makeMove(move);
+            nodes += perft(position, depth - 1, ply + 1);
+            position.unmakeMove(move);
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts and prints the leaf nodes below every root move
+     * @param position The root position
+     * @param depth The depth in plies
+     * @return The total number of leaf nodes
+     */
+    public long divide(Position position, int depth) {
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegalMoves(position, moves);
+
+        long total = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            position.makeMove(move);
+            long nodes = depth > 1 ? perft(position, depth - 1, 1) : 1;
+            position.unmakeMove(move);
+
+            System.out.println(Move.toString(move) + ": " + nodes);
+            total += nodes;
+        }
+        return total;
+    }
+
+    /**
+     * Runs every reference position to the deepest depth within a node budget
+     * @param maxNodes The largest expected node count to run
+     * @return true if every count matched
+     */
+    public boolean runSuite(long maxNodes) {
+        boolean passed = true;
+        long totalNodes = 0;
+        long totalNanos = 0;
+
+        for (Object[] reference : REFERENCE_POSITIONS) {
+            String name = (String) reference[0];
+            String fen = (String) reference[1];
+            long[] expected = (long[]) reference[2];
+
+            // Deepest depth whose expected count fits in the budget
+            int depth = 1;
+            while (depth < expected.length && expected[depth] <= maxNodes) {
+                depth++;
+            }
+
+            Position position = Position.fromFenData(TranslateFen.translateFenComplete(fen));
+            long start = System.nanoTime();
+            long nodes = perft(position, depth);
+            long elapsed = System.nanoTime() - start;
+            totalNodes += nodes;
+            totalNanos += elapsed;
+
+            boolean ok = nodes == expected[depth - 1];
+            passed &= ok;
+            System.out.println((ok ? "PASS " : "FAIL ") + name + " depth " + depth + ": " + nodes
+                + (ok ? "" : " (expected " + expected[depth - 1] + ")")
+                + " " + formatSpeed(nodes, elapsed));
+        }
+
+        System.out.println("Total: " + totalNodes + " nodes " + formatSpeed(totalNodes, totalNanos));
+        return passed;
+    }
+
+    private static String formatSpeed(long nodes, long nanos) {
+        long millis = Math.max(1, nanos / 1_000_000);
+        return "in " + millis + " ms (" + (nodes * 1000 / millis) + " nps)";
+    }
+
+    public static void main(String[] args) {
+        String command = args.length > 0 ? args[0] : "suite";
+        Perft perft = new Perft();
+
+        switch (command) {
+            case "suite": {
+                long maxNodes = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_SUITE_NODES;
+                if (!perft.runSuite(maxNodes)) {
+                    System.exit(1);
+                }
+                break;
+            }
+            case "perft":
+            case "divide": {
+                if (args.length < 2) {
+                    System.err.println("Usage: " + command + " <depth> [fen]");
+                    System.exit(2);
+                }
+                int depth = Integer.parseInt(args[1]);
+                String fen = args.length > 2
+                    ? String.join(" ", Arrays.copyOfRange(args, 2, args.length))
+                    : TranslateFen.getStartingPositionFen();
+                Position position = Position.fromFenData(TranslateFen.translateFenComplete(fen));
+
+                long start = System.nanoTime();
+                long nodes = command.equals("perft") ? perft.perft(position, depth) : perft.divide(position, depth);
+                long elapsed = System.nanoTime() - start;
+                System.out.println("Nodes: " + nodes + " " + formatSpeed(nodes, elapsed));
+                break;
+            }
+            default:
+                System.err.println("Unknown command: " + command + " (expected perft, divide or suite)");
+                System.exit(2);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.chess.engine;
+
+import com.chess.board.PieceSquareTables;
+import com.chess.board.Position;
+
+/**
+ * Material and piece-square tables, tapered by game phase
+ *
+ * The position keeps both totals up to date as moves are made, so this costs
+ * the same whatever is on the board.
+ */
+public class PieceSquareEvaluator implements Evaluator {
+
+    @Override
+    public int evaluate(Position position) {
+        int score = PieceSquareTables.taper(position.getMidgameScore(), position.getEndgameScore(), position.getPhase());
+        return position.getSideToMove() == Position.WHITE ? score : -score;
+    }
+}
@@ -0,0 +1,149 @@
+package com.chess.engine;
+
+import com.chess.board.Attacks;
+import com.chess.board.PieceSquareTables;
+import com.chess.board.Position;
+
+/**
+ * Material and piece-square tables plus mobility, pawn structure and king safety
+ *
+ * Every term has a middlegame and an endgame weight and the sum is tapered by
+ * game phase, like the piece-square score it builds on. Pawn structure scores
+ * and passed pawns are cached in a pawn hash table shared by all threads.
+ */
+public class PositionalEvaluator implements Evaluator {
+
+    // Per reachable square not attacked by an enemy pawn, by piece type (- P R N B Q K)
+    private static final int[] MOBILITY = {
+        0, 0, Score.of(2, 4), Score.of(4, 4), Score.of(4, 5), Score.of(1, 2), 0
+    };
+    private static final int SHIELD_PAWN = Score.of(12, 0);
+    // King zone attack units per attacking piece, by piece type (- P R N B Q K)
+    private static final int[] ATTACK_UNITS = {0, 0, 3, 2, 2, 5, 0};
+    private static final int MAX_ATTACK_UNITS = 40;
+    // Passed pawn whose square in front is empty
+    private static final int FREE_PASSER = Score.of(5, 20);
+
+    private final PawnHashTable pawnHashTable;
+    // Per-thread scratch for pawn hash probes
+    private final ThreadLocal<long[]> pawnEntry = ThreadLocal.withInitial(() -> new long[2]);
+
+    public PositionalEvaluator() {
+        this(new PawnHashTable());
+    }
+
+    /**
+     * @param pawnHashTable The cache for pawn structure evaluations
+     */
+    public PositionalEvaluator(PawnHashTable pawnHashTable) {
+        this.pawnHashTable = pawnHashTable;
+    }
+
+    @Override
+    public int evaluate(Position position) {
+        int score = Score.of(position.getMidgameScore(), position.getEndgameScore())
+                  + pawns(position)
+                  + pieces(position, Position.WHITE) - pieces(position, Position.BLACK);
+
+        int tapered = PieceSquareTables.taper(Score.midgame(score), Score.endgame(score), position.getPhase());
+        return position.getSideToMove() == Position.WHITE ? tapered : -tapered;
+    }
+
+    public PawnHashTable getPawnHashTable() {
+        return pawnHashTable;
+    }
+
+    /**
+     * Scores the pawns, white minus black (packed): the cached structure plus the passed pawn terms
+     * that also depend on the other pieces
+     */
+    private int pawns(Position position) {
+        long whitePawns = position.getPieces(Position.WHITE, Position.PAWN);
+        long blackPawns = position.getPieces(Position.BLACK, Position.PAWN);
+
+        int structure;
+        long passed;
+        long[] entry = pawnEntry.get();
+        if (pawnHashTable.probe(position.getPawnKey(), entry)) {
+            structure = (int) entry[0];
+            passed = entry[1];
+        } else {
+            structure = PawnStructure.evaluate(whitePawns, blackPawns);
+            passed = PawnStructure.passedPawns(whitePawns, blackPawns);
+            pawnHashTable.store(position.getPawnKey(), structure, passed);
+        }
+
+        // Passed pawns that can advance right away
+        long empty = ~position.getOccupied();
+        long whiteFree = passed & whitePawns & (empty << 8);
+        long blackFree = passed & blackPawns & (empty >>> 8);
+        return structure + FREE_PASSER * (Long.bitCount(whiteFree) - Long.bitCount(blackFree));
+    }
+
+    /**
+     * Scores the mobility and king safety of one side (packed)
+     */
+    private static int pieces(Position position, int color) {
+        int them = Position.opposite(color);
+        long occupied = position.getOccupied();
+        long own = position.getPieces(color);
+
+        // Squares guarded by enemy pawns do not count as mobility
+        long enemyPawnAttacks = 0L;
+        long enemyPawns = position.getPieces(them, Position.PAWN);
+        while (enemyPawns != 0) {
+            int sq = Long.numberOfTrailingZeros(enemyPawns);
+            enemyPawns &= enemyPawns - 1;
+            enemyPawnAttacks |= Attacks.pawnAttacks(them, sq);
+        }
+        long safe = ~own & ~enemyPawnAttacks;
+
+        // Attacks on the enemy king and the squares around it
+        int enemyKing = position.getKingSquare(them);
+        long kingZone = enemyKing == Position.NO_SQUARE ? 0L : Attacks.kingAttacks(enemyKing) | (1L << enemyKing);
+        int attackUnits = 0;
+
+        int score = 0;
+        for (int type = Position.ROOK; type <= Position.QUEEN; type++) {
+            long pieces = position.getPieces(color, type);
+            while (pieces != 0) {
+                int sq = Long.numberOfTrailingZeros(pieces);
+                pieces &= pieces - 1;
+                long attacks = attacks(type, sq, occupied);
+                score += MOBILITY[type] * Long.bitCount(attacks & safe);
+                if ((attacks & kingZone) != 0) {
+                    attackUnits += ATTACK_UNITS[type];
+                }
+            }
+        }
+
+        // Attacks on the enemy king grow more dangerous the more pieces join in (middlegame only)
+        attackUnits = Math.min(attackUnits, MAX_ATTACK_UNITS);
+        score += Score.of(attackUnits * attackUnits / 4, 0);
+
+        // Own pawns in the two rows in front of the king
+        int king = position.getKingSquare(color);
+        if (king != Position.NO_SQUARE) {
+            long shield = shieldSquares(color, king) & position.getPieces(color, Position.PAWN);
+            score += SHIELD_PAWN * Long.bitCount(shield);
+        }
+        return score;
+    }
+
+    private static long attacks(int type, int sq, long occupied) {
+        switch (type) {
+            case Position.KNIGHT: return Attacks.knightAttacks(sq);
+            case Position.BISHOP: return Attacks.bishopAttacks(sq, occupied);
+            case Position.ROOK: return Attacks.rookAttacks(sq, occupied);
+            default: return Attacks.queenAttacks(sq, occupied);
+        }
+    }
+
+    private static long shieldSquares(int color, int king) {
+        // The king's file and its neighbours on the king's row, shifted one and two rows ahead
+        long files = (Attacks.kingAttacks(king) | (1L << king)) & (0xFFL << (Position.row(king) * 8));
+        long oneAhead = color == Position.WHITE ? files >>> 8 : files << 8;
+        long twoAhead = color == Position.WHITE ? oneAhead >>> 8 : oneAhead << 8;
+        return oneAhead | twoAhead;
+    }
+}
@@ -0,0 +1,26 @@
+package com.chess.engine;
+
+/**
+ * A middlegame and an endgame score packed into one int
+ *
+ * The endgame score sits in the low 16 bits and the middlegame score above it,
+ * so packed scores can be added and subtracted directly and are only split
+ * when tapering.
+ */
+final class Score {
+
+    private Score() {
+    }
+
+    static int of(int midgame, int endgame) {
+        return (midgame << 16) + endgame;
+    }
+
+    static int midgame(int score) {
+        return (score + 0x8000) >> 16;
+    }
+
+    static int endgame(int score) {
+        return (short) score;
+    }
+}
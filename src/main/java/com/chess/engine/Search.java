@@ -0,0 +1,549 @@
+package com.chess.engine;
+
+import java.util.function.Consumer;
+
+import com.chess.board.Move;
+import com.chess.board.MoveGenerator;
+import com.chess.board.MoveList;
+import com.chess.board.Position;
+
+/**
+ * Negamax alpha-beta search with iterative deepening
+ *
+ * Each iteration searches one ply deeper than the last and starts from the
+ * previous best move, so a search stopped by its time or node budget still
+ * returns the result of the deepest completed iteration. Scores are in
+ * centipawns from the side to move's point of view; mates are reported as
+ * MATE minus the distance in plies. At depth 0 a quiescence search resolves
+ * pending captures before the position is evaluated.
+ *
+ * One instance is one search thread. All mutable search state (position,
+ * move lists, PV stacks, killer and history tables) belongs to the instance; the only thing threads share
+ * is the engine's transposition table. Helper threads (id > 0) start on
+ * alternating depths so they fill the table with different parts of the tree.
+ */
+public class Search {
+
+    public static final int MAX_PLY = 128;
+    public static final int INFINITY = 32_500;
+    public static final int MATE = 32_000;
+    // Scores beyond this are mates found within MAX_PLY
+    public static final int MATE_BOUND = MATE - MAX_PLY;
+    public static final int DRAW = 0;
+
+    // How many nodes pass between two looks at the clock
+    private static final int CHECK_INTERVAL = 2048;
+    // Largest positional swing a capture can bring on top of the material it wins (delta pruning)
+    private static final int DELTA_MARGIN = 200;
+
+    private static final int ASPIRATION_DEPTH = 4;
+    private static final int ASPIRATION_WINDOW = 25;
+    private static final int REVERSE_FUTILITY_DEPTH = 3;
+    private static final int REVERSE_FUTILITY_MARGIN = 120;
+    private static final int NULL_MOVE_DEPTH = 3;
+    private static final int NULL_MOVE_REDUCTION = 3;
+    private static final int FUTILITY_DEPTH = 2;
+    private static final int[] FUTILITY_MARGIN = {0, 150, 300};
+    private static final int LMR_DEPTH = 3;
+    // Moves tried at full depth before reductions start
+    private static final int LMR_MOVES = 3;
+    // Reduction by [depth][move number], growing with the logarithm of both
+    private static final int[][] LMR_TABLE = new int[64][64];
+
+    static {
+        for (int depth = 1; depth < 64; depth++) {
+            for (int moveNumber = 1; moveNumber < 64; moveNumber++) {
+                LMR_TABLE[depth][moveNumber] = (int) (0.75 + Math.log(depth) * Math.log(moveNumber) / 2.25);
+            }
+        }
+    }
+
+    private final Engine engine;
+    private final int id;
+    private TranspositionTable transpositionTable;
+    private Evaluator evaluator;
+    private SearchOptions options;
+    private final MoveList[] moveLists = MoveList.perPly(MAX_PLY);
+    private final MovePicker movePicker = new MovePicker(MAX_PLY);
+
+    // Triangular principal variation table: pvTable[ply] holds the line found from that ply
+    private final int[][] pvTable = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+
+    private Position position;
+    private long nodes;
+    // Node count readable by other threads, refreshed every CHECK_INTERVAL nodes
+    private volatile long reportedNodes;
+    private long nodeLimit;
+    private TimeManager timeManager;
+    private volatile boolean stopped;
+
+    /**
+     * @param engine The engine owning the shared transposition table and evaluation
+     * @param id The thread index, 0 for the main thread
+     */
+    public Search(Engine engine, int id) {
+        this.engine = engine;
+        this.id = id;
+    }
+
+    /**
+     * Runs an iterative deepening search until the limits are reached or stop() is called
+     * (a stop() already pending ends it after the first move; Engine advances the transposition table age)
+     * @param root The position to search (not modified)
+     * @param limits The depth, time and node budget
+     * @param listener Called after every completed iteration, may be null
+     * @return The result of the deepest completed iteration
+     */
+    public SearchResult search(Position root, SearchLimits limits, Consumer<SearchResult> listener) {
+        position = new Position(root);
+        transpositionTable = engine.getTranspositionTable();
+        evaluator = engine.getEvaluator();
+        options = engine.getSearchOptions();
+        movePicker.newSearch();
+        nodes = 0;
+        reportedNodes = 0;
+        nodeLimit = limits.getNodes() > 0 ? limits.getNodes() : Long.MAX_VALUE;
+        long start = System.currentTimeMillis();
+        timeManager = new TimeManager(limits, start);
+        int maxDepth = limits.getDepth() > 0 ? Math.min(limits.getDepth(), MAX_PLY - 1) : MAX_PLY - 1;
+
+        SearchResult result = null;
+        int bestMove = Move.NONE;
+
+        for (int depth = 1 + (id & 1); depth <= maxDepth; depth++) {
+            int score;
+            if (options.isAspirationWindows() && depth >= ASPIRATION_DEPTH && result != null
+                    && Math.abs(result.getScore()) < MATE_BOUND) {
+                score = searchAspiration(depth, bestMove, result.getScore());
+            } else {
+                score = searchRoot(depth, bestMove, -INFINITY, INFINITY);
+            }
+
+            // An interrupted iteration is only trusted if nothing completed before it
+            if (stopped && result != null) {
+                break;
+            }
+            // and then only for its move: the score is a bound at best (-INFINITY if no root
+            // move finished), so the static evaluation is reported instead
+            if (stopped && pvTable[0][0] != Move.NONE) {
+                score = evaluator.evaluate(position);
+            }
+
+            bestMove = pvTable[0][0];
+            int[] pv = new int[pvLength[0]];
+            System.arraycopy(pvTable[0], 0, pv, 0, pv.length);
+            reportedNodes = nodes;
+            result = new SearchResult(bestMove, score, depth, engine.getSearchedNodes(),
+                System.currentTimeMillis() - start, pv);
+
+            if (listener != null) {
+                listener.accept(result);
+            }
+            if (stopped || bestMove == Move.NONE) {
+                break;
+            }
+            // Another iteration would likely not finish in the time left
+            if (timeManager.iterationComplete(bestMove, score)) {
+                break;
+            }
+            // No point searching deeper once a forced mate is proven within the horizon
+            if (Math.abs(score) >= MATE_BOUND && MATE - Math.abs(score) <= depth) {
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Asks a running search to stop as soon as possible
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Clears a previous stop request; Engine does this when a search ends and in
+     * resetStop, never when search() starts, so a stop sent while the search thread
+     * is still being scheduled is not lost
+     */
+    public void reset() {
+        stopped = false;
+    }
+
+    /**
+     * Gets the nodes searched so far (safe to call from another thread, may lag slightly)
+     */
+    public long getNodes() {
+        return reportedNodes;
+    }
+
+    /**
+     * Searches the root in a narrow window around the previous score, widening
+     * the side that failed until the score falls inside
+     */
+    private int searchAspiration(int depth, int previousBest, int previousScore) {
+        int delta = ASPIRATION_WINDOW;
+        int alpha = Math.max(previousScore - delta, -INFINITY);
+        int beta = Math.min(previousScore + delta, INFINITY);
+        int firstMove = previousBest;
+
+        while (true) {
+            int score = searchRoot(depth, firstMove, alpha, beta);
+            if (stopped) {
+                return score;
+            }
+
+            delta *= 2;
+            if (score <= alpha) {
+                alpha = Math.max(score - delta, -INFINITY);
+            } else if (score >= beta) {
+                beta = Math.min(score + delta, INFINITY);
+                // Start the re-search from the move that failed high
+                firstMove = pvTable[0][0];
+            } else {
+                return score;
+            }
+        }
+    }
+
+    /**
+     * Searches the root moves, trying the previous iteration's best move first
+     * @return The best score, fail-soft: at most alpha on a fail low, at least beta on a fail high
+     */
+    private int searchRoot(int depth, int previousBest, int alpha, int beta) {
+        MoveList moves = moveLists[0];
+        moves.clear();
+        MoveGenerator.generateLegalMoves(position, moves);
+        pvLength[0] = 0;
+
+        if (moves.isEmpty()) {
+            // No move to report, and none left over from an earlier search
+            pvTable[0][0] = Move.NONE;
+            return isInCheck() ? -MATE : DRAW;
+        }
+
+        movePicker.score(moves, 0, previousBest);
+
+        // Seed the line so even an interrupted iteration has a move to return
+        pvTable[0][0] = movePicker.next(moves, 0, 0);
+        pvLength[0] = 1;
+
+        int bestScore = -INFINITY;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = movePicker.next(moves, 0, i);
+            position.makeMove(move);
+            int score = -negamax(depth - 1, -beta, -alpha, 1, true);
+            position.unmakeMove(move);
+
+            if (stopped) {
+                break;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(0, move);
+                    if (score >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    /**
+     * @param allowNull false right after a null move, so two passes never follow each other
+     */
+    private int negamax(int depth, int alpha, int beta, int ply, boolean allowNull) {
+        pvLength[ply] = ply;
+
+        if (depth <= 0) {
+            return quiescence(alpha, beta, ply);
+        }
+
+        nodes++;
+        if ((nodes & (CHECK_INTERVAL - 1)) == 0) {
+            checkLimits();
+        }
+        if (stopped) {
+            return 0;
+        }
+
+        // Fifty-move rule and repetitions (a single repeat inside the tree is scored as the draw it can force)
+        if (position.getHalfmoveClock() >= 100 || position.isRepetition()) {
+            return DRAW;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return evaluate();
+        }
+
+        // A deep enough stored result whose bound fits the window ends the search here
+        long key = position.getKey();
+        long entry = transpositionTable.probe(key);
+        int ttMove = Move.NONE;
+        if (entry != 0) {
+            ttMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int ttScore = scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || (bound == TranspositionTable.BOUND_LOWER && ttScore >= beta)
+                        || (bound == TranspositionTable.BOUND_UPPER && ttScore <= alpha)) {
+                    return ttScore;
+                }
+            }
+        }
+
+        // Selective techniques only apply where the exact score does not matter (null window nodes)
+        boolean pvNode = beta - alpha > 1;
+        boolean inCheck = isInCheck();
+        int us = position.getSideToMove();
+        int staticEval = inCheck ? -INFINITY : evaluator.evaluate(position);
+
+        // Reverse futility pruning: far enough above beta that a shallow search will not fall below it
+        if (options.isReverseFutilityPruning() && !pvNode && !inCheck && depth <= REVERSE_FUTILITY_DEPTH
+                && Math.abs(beta) < MATE_BOUND && staticEval - REVERSE_FUTILITY_MARGIN * depth >= beta) {
+            return staticEval - REVERSE_FUTILITY_MARGIN * depth;
+        }
+
+        // Null move pruning: if passing still fails high, a real move will too. Not with only
+        // pawns left, where being forced to move (zugzwang) is common and passing is misleading.
+        if (options.isNullMove() && allowNull && !pvNode && !inCheck && depth >= NULL_MOVE_DEPTH
+                && staticEval >= beta && hasPieces(us)) {
+            int reduction = NULL_MOVE_REDUCTION + depth / 6;
+            position.makeNullMove();
+            int score = -negamax(depth - 1 - reduction, -beta, -beta + 1, ply + 1, false);
+            position.unmakeNullMove();
+
+            if (stopped) {
+                return 0;
+            }
+            if (score >= beta) {
+                // A mate found after passing is not a proven mate
+                return score >= MATE_BOUND ? beta : score;
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        MoveGenerator.generateLegalMoves(position, moves);
+
+        if (moves.isEmpty()) {
+            // Checkmate (prefer the shortest) or stalemate
+            return inCheck ? -MATE + ply : DRAW;
+        }
+
+        // The stored best move is the most likely to cut off again
+        movePicker.score(moves, ply, ttMove);
+
+        // Futility pruning: near the leaves, quiet moves cannot lift a hopeless static score to alpha
+        boolean futile = options.isFutilityPruning() && !pvNode && !inCheck && depth <= FUTILITY_DEPTH
+                && Math.abs(alpha) < MATE_BOUND && staticEval + FUTILITY_MARGIN[depth] <= alpha;
+        boolean reduce = options.isLateMoveReductions() && !inCheck && depth >= LMR_DEPTH;
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = Move.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = movePicker.next(moves, ply, i);
+            boolean quiet = MovePicker.isQuiet(move);
+            position.makeMove(move);
+
+            // Moves that give check are never pruned or reduced
+            boolean selective = quiet && i > 0 && (futile || (reduce && i >= LMR_MOVES)) && !isInCheck();
+
+            if (selective && futile) {
+                position.unmakeMove(move);
+                bestScore = Math.max(bestScore, staticEval + FUTILITY_MARGIN[depth]);
+                continue;
+            }
+
+            int score;
+            if (selective) {
+                // Late move reduction: a quiet move ordered this late is searched shallower with a null
+                // window first, and again at full depth only if it unexpectedly beats alpha
+                int reduction = Math.min(LMR_TABLE[Math.min(depth, 63)][Math.min(i, 63)], depth - 2);
+                score = -negamax(depth - 1 - reduction, -alpha - 1, -alpha, ply + 1, true);
+                if (score > alpha && !stopped) {
+                    score = -negamax(depth - 1, -beta, -alpha, ply + 1, true);
+                }
+            } else {
+                score = -negamax(depth - 1, -beta, -alpha, ply + 1, true);
+            }
+            position.unmakeMove(move);
+
+            if (stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (score >= beta) {
+                        if (quiet) {
+                            movePicker.updateCutoff(move, ply, depth);
+                        }
+                        break; // beta cutoff
+                    }
+                }
+            }
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.BOUND_LOWER
+                  : bestScore > originalAlpha ? TranspositionTable.BOUND_EXACT
+                  : TranspositionTable.BOUND_UPPER;
+        transpositionTable.store(key, bound == TranspositionTable.BOUND_UPPER ? Move.NONE : bestMove,
+                scoreToTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    /**
+     * Checks if a side has anything besides pawns and the king
+     */
+    private boolean hasPieces(int color) {
+        return (position.getPieces(color) & ~position.getPieces(color, Position.PAWN)
+                & ~position.getPieces(color, Position.KING)) != 0;
+    }
+
+    /**
+     * Converts a mate score from "distance to the root" to "distance to this node" for storing
+     */
+    private static int scoreToTable(int score, int ply) {
+        if (score >= MATE_BOUND) return score + ply;
+        if (score <= -MATE_BOUND) return score - ply;
+        return score;
+    }
+
+    /**
+     * Converts a stored mate score back to "distance to the root"
+     */
+    private static int scoreFromTable(int score, int ply) {
+        if (score >= MATE_BOUND) return score - ply;
+        if (score <= -MATE_BOUND) return score + ply;
+        return score;
+    }
+
+    /**
+     * Searches captures and promotions only, until the position is quiet
+     *
+     * The side to move may stand pat on the static evaluation instead of
+     * capturing. Captures that cannot lift the score to alpha even with their
+     * material (delta pruning) or that lose material in the exchange (SEE) are
+     * skipped. In check every evasion is searched, so mates are still seen.
+     */
+    private int quiescence(int alpha, int beta, int ply) {
+        pvLength[ply] = ply;
+
+        nodes++;
+        if ((nodes & (CHECK_INTERVAL - 1)) == 0) {
+            checkLimits();
+        }
+        if (stopped) {
+            return 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return evaluator.evaluate(position);
+        }
+
+        boolean inCheck = isInCheck();
+        int standPat = -INFINITY;
+        MoveList moves = moveLists[ply];
+        moves.clear();
+
+        if (inCheck) {
+            MoveGenerator.generateLegalMoves(position, moves);
+            if (moves.isEmpty()) {
+                return -MATE + ply;
+            }
+        } else {
+            standPat = evaluator.evaluate(position);
+            if (standPat >= beta) {
+                return standPat;
+            }
+            alpha = Math.max(alpha, standPat);
+            MoveGenerator.generateLegalCaptures(position, moves);
+        }
+
+        movePicker.score(moves, ply, Move.NONE);
+        int bestScore = standPat;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = movePicker.next(moves, ply, i);
+
+            if (!inCheck) {
+                int promotion = Move.promotion(move);
+                if (promotion != 0 && promotion != Position.QUEEN) {
+                    continue; // under-promotions are never better than the queen here
+                }
+                int gain = (Move.isCapture(move) ? pieceValue(Move.captured(move)) : 0)
+                         + (promotion != 0 ? pieceValue(promotion) - pieceValue(Position.PAWN) : 0);
+                if (standPat + gain + DELTA_MARGIN <= alpha) {
+                    continue;
+                }
+                if (!StaticExchange.isAtLeast(position, move, 0)) {
+                    continue;
+                }
+            }
+
+            position.makeMove(move);
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            position.unmakeMove(move);
+
+            if (stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (score >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    private static int pieceValue(int piece) {
+        return Engine.PIECE_VALUES[0][(piece & 7) - 1];
+    }
+
+    /**
+     * Static evaluation of a leaf, counted as a node
+     */
+    private int evaluate() {
+        nodes++;
+        return evaluator.evaluate(position);
+    }
+
+    private boolean isInCheck() {
+        int us = position.getSideToMove();
+        int kingSquare = position.getKingSquare(us);
+        return kingSquare != Position.NO_SQUARE && position.isSquareAttacked(kingSquare, Position.opposite(us));
+    }
+
+    private void checkLimits() {
+        reportedNodes = nodes;
+        if (nodes >= nodeLimit || timeManager.isHardLimitReached()) {
+            stopped = true;
+        }
+    }
+
+    /**
+     * Makes move the first entry of this ply's line, followed by the child's line
+     */
+    private void updatePv(int ply, int move) {
+        pvTable[ply][ply] = move;
+        int childLength = pvLength[ply + 1];
+        for (int i = ply + 1; i < childLength; i++) {
+            pvTable[ply][i] = pvTable[ply + 1][i];
+        }
+        pvLength[ply] = Math.max(childLength, ply + 1);
+    }
+}
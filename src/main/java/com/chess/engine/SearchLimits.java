@@ -0,0 +1,78 @@
+package com.chess.engine;
+
+/**
+ * Budget for a single search: depth, time and node limits
+ * A limit of 0 means "no limit" for that resource.
+ */
+public class SearchLimits {
+
+    private int depth;
+    private long moveTimeMillis;
+    // Clock of the side to move (TimeManager turns these into a move time)
+    private long timeMillis;
+    private long incrementMillis;
+    private int movesToGo;
+    private long nodes;
+    private boolean infinite;
+
+    /**
+     * Creates limits that search until stopped
+     */
+    public static SearchLimits infinite() {
+        SearchLimits limits = new SearchLimits();
+        limits.setInfinite(true);
+        return limits;
+    }
+
+    /**
+     * Creates limits for a fixed depth search
+     * @param depth The depth in plies
+     */
+    public static SearchLimits depth(int depth) {
+        SearchLimits limits = new SearchLimits();
+        limits.setDepth(depth);
+        return limits;
+    }
+
+    /**
+     * Creates limits for a fixed time search
+     * @param millis The time to think in milliseconds
+     */
+    public static SearchLimits moveTime(long millis) {
+        SearchLimits limits = new SearchLimits();
+        limits.setMoveTimeMillis(millis);
+        return limits;
+    }
+
+    /**
+     * Creates limits for a search under a clock
+     * @param timeMillis The time left on the side to move's clock
+     * @param incrementMillis The increment per move
+     * @param movesToGo The moves until the next time control, 0 if the rest of the game
+     */
+    public static SearchLimits clock(long timeMillis, long incrementMillis, int movesToGo) {
+        SearchLimits limits = new SearchLimits();
+        limits.setTimeMillis(timeMillis);
+        limits.setIncrementMillis(incrementMillis);
+        limits.setMovesToGo(movesToGo);
+        return limits;
+    }
+
+    // Getters
+    public int getDepth() { return depth; }
+    public long getMoveTimeMillis() { return moveTimeMillis; }
+    public long getTimeMillis() { return timeMillis; }
+    public long getIncrementMillis() { return incrementMillis; }
+    public int getMovesToGo() { return movesToGo; }
+    public long getNodes() { return nodes; }
+    public boolean isInfinite() { return infinite; }
+
+    // Setters
+    public void setDepth(int depth) { this.depth = depth; }
+    public void setMoveTimeMillis(long millis) { this.moveTimeMillis = millis; }
+    public void setTimeMillis(long millis) { this.timeMillis = millis; }
+    public void setIncrementMillis(long millis) { this.incrementMillis = millis; }
+    public void setMovesToGo(int movesToGo) { this.movesToGo = movesToGo; }
+    public void setNodes(long nodes) { this.nodes = nodes; }
+    public void setInfinite(boolean infinite) { this.infinite = infinite; }
+}
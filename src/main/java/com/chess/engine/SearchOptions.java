@@ -0,0 +1,56 @@
+package com.chess.engine;
+
+/**
+ * Switches for the selective search techniques, all enabled by default
+ * Turning one off makes it possible to measure its effect on node counts and results.
+ */
+public class SearchOptions {
+
+    private boolean nullMove = true;
+    private boolean lateMoveReductions = true;
+    private boolean futilityPruning = true;
+    private boolean reverseFutilityPruning = true;
+    private boolean aspirationWindows = true;
+
+    public SearchOptions() {
+    }
+
+    /**
+     * Creates an independent copy of other options
+     * @param other The options to copy
+     */
+    public SearchOptions(SearchOptions other) {
+        this.nullMove = other.nullMove;
+        this.lateMoveReductions = other.lateMoveReductions;
+        this.futilityPruning = other.futilityPruning;
+        this.reverseFutilityPruning = other.reverseFutilityPruning;
+        this.aspirationWindows = other.aspirationWindows;
+    }
+
+    /**
+     * Creates options with every technique turned off (plain alpha-beta with quiescence)
+     */
+    public static SearchOptions none() {
+        SearchOptions options = new SearchOptions();
+        options.setNullMove(false);
+        options.setLateMoveReductions(false);
+        options.setFutilityPruning(false);
+        options.setReverseFutilityPruning(false);
+        options.setAspirationWindows(false);
+        return options;
+    }
+
+    // Getters
+    public boolean isNullMove() { return nullMove; }
+    public boolean isLateMoveReductions() { return lateMoveReductions; }
+    public boolean isFutilityPruning() { return futilityPruning; }
+    public boolean isReverseFutilityPruning() { return reverseFutilityPruning; }
+    public boolean isAspirationWindows() { return aspirationWindows; }
+
+    // Setters
+    public void setNullMove(boolean enabled) { this.nullMove = enabled; }
+    public void setLateMoveReductions(boolean enabled) { this.lateMoveReductions = enabled; }
+    public void setFutilityPruning(boolean enabled) { this.futilityPruning = enabled; }
+    public void setReverseFutilityPruning(boolean enabled) { this.reverseFutilityPruning = enabled; }
+    public void setAspirationWindows(boolean enabled) { this.aspirationWindows = enabled; }
+}
@@ -0,0 +1,69 @@
+package com.chess.engine;
+
+import com.chess.board.Move;
+
+/**
+ * Outcome of a (possibly still running) search after a completed iteration
+ */
+public class SearchResult {
+
+    private final int bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long timeMillis;
+    private final int[] principalVariation;
+
+    public SearchResult(int bestMove, int score, int depth, long nodes, long timeMillis, int[] principalVariation) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.timeMillis = timeMillis;
+        this.principalVariation = principalVariation;
+    }
+
+    // Getters
+    public int getBestMove() { return bestMove; }
+    public int getScore() { return score; }
+    public int getDepth() { return depth; }
+    public long getNodes() { return nodes; }
+    public long getTimeMillis() { return timeMillis; }
+    public int[] getPrincipalVariation() { return principalVariation; }
+
+    /**
+     * Gets the nodes searched per second
+     */
+    public long getNodesPerSecond() {
+        return nodes * 1000 / Math.max(1, timeMillis);
+    }
+
+    /**
+     * Checks if the score is a forced mate for either side
+     */
+    public boolean isMateScore() {
+        return Math.abs(score) >= Search.MATE_BOUND;
+    }
+
+    /**
+     * Gets the number of moves (not plies) to mate, negative if the side to move gets mated
+     */
+    public int getMateInMoves() {
+        int plies = Search.MATE - Math.abs(score);
+        return score > 0 ? (plies + 1) / 2 : -(plies + 1) / 2;
+    }
+
+    /**
+     * Gets the principal variation in long algebraic notation (e.g., "e2e4 e7e5 g1f3")
+     */
+    public String getPrincipalVariationString() {
+        StringBuilder pv = new StringBuilder();
+        for (int move : principalVariation) {
+            if (pv.length() > 0) {
+                pv.append(' ');
+            }
+            pv.append(Move.toString(move));
+        }
+        return pv.toString();
+    }
+}
@@ -0,0 +1,112 @@
+package com.chess.engine;
+
+import com.chess.board.Attacks;
+import com.chess.board.Move;
+import com.chess.board.Position;
+
+/**
+ * Static exchange evaluation (SEE)
+ *
+ * Works out the material result of the capture sequence on one square when
+ * both sides keep recapturing with their least valuable attacker and may stop
+ * whenever continuing would lose material. Sliders that were hidden behind a
+ * capturing piece (x-rays) join in as the square's attackers are removed.
+ * Nothing is played on the board.
+ */
+public final class StaticExchange {
+
+    // Least valuable first
+    private static final int[] ATTACKER_ORDER = {
+        Position.PAWN, Position.KNIGHT, Position.BISHOP, Position.ROOK, Position.QUEEN, Position.KING
+    };
+
+    private StaticExchange() {
+    }
+
+    /**
+     * Checks if a move wins at least a given amount of material once the exchange on its square is over
+     * @param position The position before the move
+     * @param move The move (usually a capture)
+     * @param threshold The material gain to reach, in centipawns
+     * @return true if the side to move gets at least threshold out of the exchange
+     */
+    public static boolean isAtLeast(Position position, int move, int threshold) {
+        if (Move.isCastle(move)) {
+            return threshold <= 0;
+        }
+
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int us = position.getSideToMove();
+
+        // swap is what the side that just captured stands to lose if it is captured back
+        int swap = (Move.isCapture(move) ? value(Move.captured(move)) : 0) - threshold;
+        if (Move.isPromotion(move)) {
+            swap += value(Move.promotion(move)) - value(Position.PAWN);
+        }
+        if (swap < 0) {
+            return false;
+        }
+        int moved = Move.isPromotion(move) ? Move.promotion(move) : Move.piece(move);
+        swap = value(moved) - swap;
+        if (swap <= 0) {
+            return true;
+        }
+
+        long occupied = position.getOccupied() ^ (1L << from) ^ (1L << to);
+        if (Move.isEnPassant(move)) {
+            occupied ^= 1L << (to + (us == Position.WHITE ? 8 : -8));
+        }
+        long attackers = position.attackersTo(to, Position.WHITE, occupied)
+                       | position.attackersTo(to, Position.BLACK, occupied);
+        long diagonal = position.getPieces(Position.WHITE, Position.BISHOP) | position.getPieces(Position.BLACK, Position.BISHOP)
+                      | position.getPieces(Position.WHITE, Position.QUEEN) | position.getPieces(Position.BLACK, Position.QUEEN);
+        long straight = position.getPieces(Position.WHITE, Position.ROOK) | position.getPieces(Position.BLACK, Position.ROOK)
+                      | position.getPieces(Position.WHITE, Position.QUEEN) | position.getPieces(Position.BLACK, Position.QUEEN);
+
+        int side = us;
+        boolean result = true;
+        while (true) {
+            side = Position.opposite(side);
+            attackers &= occupied;
+            long sideAttackers = attackers & position.getPieces(side);
+            if (sideAttackers == 0) {
+                break;
+            }
+            result = !result;
+
+            int type = Position.KING;
+            long attacker = 0L;
+            for (int candidate : ATTACKER_ORDER) {
+                attacker = sideAttackers & position.getPieces(side, candidate);
+                if (attacker != 0) {
+                    type = candidate;
+                    break;
+                }
+            }
+
+            if (type == Position.KING) {
+                // The king may only recapture if nothing recaptures it
+                return (attackers & ~position.getPieces(side)) != 0 ? !result : result;
+            }
+
+            swap = value(type) - swap;
+            if (swap < (result ? 1 : 0)) {
+                break;
+            }
+
+            occupied ^= Long.lowestOneBit(attacker);
+            if (type == Position.PAWN || type == Position.BISHOP || type == Position.QUEEN) {
+                attackers |= Attacks.bishopAttacks(to, occupied) & diagonal;
+            }
+            if (type == Position.ROOK || type == Position.QUEEN) {
+                attackers |= Attacks.rookAttacks(to, occupied) & straight;
+            }
+        }
+        return result;
+    }
+
+    private static int value(int piece) {
+        return Engine.PIECE_VALUES[0][(piece & 7) - 1];
+    }
+}
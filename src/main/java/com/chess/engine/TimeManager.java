@@ -0,0 +1,126 @@
+package com.chess.engine;
+
+/**
+ * Decides how long a single search may think
+ *
+ * A fixed move time is used as is. Under a clock the remaining time, the
+ * increment and the moves to the next time control give two limits:
+ * - the soft limit, checked between iterations: no new iteration starts after it.
+ *   It shrinks while the best move stays the same and grows when the score drops.
+ * - the hard limit, checked while searching: the search is stopped at once.
+ * The hard limit is polled by the search every few thousand nodes rather than on
+ * every node, so reading the clock costs nothing measurable.
+ */
+public class TimeManager {
+
+    // Kept back from every allocation for I/O and GUI latency
+    private static final long MOVE_OVERHEAD_MILLIS = 50;
+    // Moves assumed left until the next time control when the GUI does not say
+    private static final int DEFAULT_MOVES_TO_GO = 30;
+    // Hard limit as a multiple of the base allocation, and at most this fraction of the clock;
+    // the soft limit stays below half the hard limit so extensions have room
+    private static final int HARD_FACTOR = 4;
+    private static final int MAX_CLOCK_FRACTION = 3;
+    // Soft limit scale in percent by the number of iterations the best move has not changed
+    private static final int[] STABILITY_SCALE = {150, 120, 100, 85, 70};
+    // A score this much below the previous iteration counts as a drop
+    private static final int SCORE_DROP = 30;
+    private static final int SCORE_DROP_SCALE = 160;
+
+    private final long start;
+    private final long softLimit;
+    private final long hardLimit;
+    private final boolean clock;
+
+    private int previousBestMove;
+    private int previousScore;
+    private int stableIterations;
+    private boolean scoreDropped;
+
+    /**
+     * @param limits The search limits (a time of 0 means no time limit)
+     * @param start The time the search started, from System.currentTimeMillis
+     */
+    public TimeManager(SearchLimits limits, long start) {
+        this.start = start;
+        if (limits.isInfinite()) {
+            clock = false;
+            softLimit = Long.MAX_VALUE;
+            hardLimit = Long.MAX_VALUE;
+        } else if (limits.getMoveTimeMillis() > 0) {
+            clock = false;
+            softLimit = limits.getMoveTimeMillis();
+            hardLimit = limits.getMoveTimeMillis();
+        } else if (limits.getTimeMillis() > 0) {
+            clock = true;
+            long time = limits.getTimeMillis();
+            int movesToGo = limits.getMovesToGo() > 0 ? limits.getMovesToGo() : DEFAULT_MOVES_TO_GO;
+            long available = Math.max(1, time - MOVE_OVERHEAD_MILLIS);
+
+            long base = time / movesToGo + limits.getIncrementMillis() * 3 / 4;
+            hardLimit = Math.max(1, Math.min(base * HARD_FACTOR, available / MAX_CLOCK_FRACTION));
+            softLimit = Math.max(1, Math.min(base, hardLimit / 2));
+        } else {
+            clock = false;
+            softLimit = Long.MAX_VALUE;
+            hardLimit = Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Checks if the search must stop now (called every few thousand nodes)
+     */
+    public boolean isHardLimitReached() {
+        return hardLimit != Long.MAX_VALUE && elapsed() >= hardLimit;
+    }
+
+    /**
+     * Records a completed iteration and checks if another one should be started
+     * @param bestMove The best move of the iteration
+     * @param score The score of the iteration
+     * @return true if the search should stop
+     */
+    public boolean iterationComplete(int bestMove, int score) {
+        if (bestMove == previousBestMove) {
+            stableIterations++;
+        } else {
+            stableIterations = 0;
+        }
+        // Sticky for the rest of the search: a line that went bad once deserves the extra time
+        if (previousBestMove != 0 && score < previousScore - SCORE_DROP) {
+            scoreDropped = true;
+        }
+        previousBestMove = bestMove;
+        previousScore = score;
+
+        if (softLimit == Long.MAX_VALUE) {
+            return false;
+        }
+        return elapsed() >= getAdjustedSoftLimit();
+    }
+
+    /**
+     * Gets the soft limit scaled by the best move stability and score trend (a clock search only)
+     */
+    public long getAdjustedSoftLimit() {
+        if (!clock) {
+            return softLimit;
+        }
+        long scaled = softLimit * STABILITY_SCALE[Math.min(stableIterations, STABILITY_SCALE.length - 1)] / 100;
+        if (scoreDropped) {
+            scaled = scaled * SCORE_DROP_SCALE / 100;
+        }
+        return Math.min(scaled, hardLimit);
+    }
+
+    /**
+     * Gets the milliseconds since the search started
+     */
+    public long elapsed() {
+        return System.currentTimeMillis() - start;
+    }
+
+    // Getters
+    public long getSoftLimit() { return softLimit; }
+    public long getHardLimit() { return hardLimit; }
+}
@@ -0,0 +1,197 @@
+package com.chess.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size transposition table shared by all search threads
+ *
+ * Entries live in two flat long arrays, with no entry objects: data holds the
+ * packed move, score, depth, bound and age, and checks holds key ^ data. A
+ * probe accepts an entry only if checks ^ data gives back the probed key, so
+ * an entry torn by two threads writing at once simply reads as a miss and no
+ * locking is needed.
+ *
+ * The table is organised in buckets of two slots. A store overwrites the
+ * slot already holding the same position, otherwise the slot that is worth
+ * least: shallow entries and entries left over from earlier searches go first.
+ *
+ * Data layout: bits 0-27 move, 28-43 score, 44-51 depth, 52-53 bound, 54-61 age.
+ */
+public class TranspositionTable {
+
+    public static final int BOUND_NONE = 0;
+    public static final int BOUND_UPPER = 1;   // score <= stored score (fail low)
+    public static final int BOUND_LOWER = 2;   // score >= stored score (fail high)
+    public static final int BOUND_EXACT = 3;
+
+    private static final int BYTES_PER_ENTRY = 16;
+    private static final int BUCKET_SIZE = 2;
+
+    private long[] checks;
+    private long[] data;
+    private int mask;
+    private int age;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+
+    /**
+     * Creates a table using at most the given amount of memory
+     * @param sizeMb The size in megabytes
+     */
+    public TranspositionTable(int sizeMb) {
+        resize(sizeMb);
+    }
+
+    /**
+     * Reallocates the table (all entries are lost)
+     * @param sizeMb The size in megabytes, rounded down to a power of two number of entries
+     */
+    public void resize(int sizeMb) {
+        if (sizeMb < 1) {
+            throw new IllegalArgumentException("Hash size must be at least 1 MB: " + sizeMb);
+        }
+        long entries = Long.highestOneBit(sizeMb * 1024L * 1024L / BYTES_PER_ENTRY);
+        entries = Math.min(entries, 1L << 30);
+        checks = new long[(int) entries];
+        data = new long[(int) entries];
+        mask = (int) entries - 1;
+        age = 0;
+        resetStatistics();
+    }
+
+    /**
+     * Removes every entry
+     */
+    public void clear() {
+        Arrays.fill(checks, 0L);
+        Arrays.fill(data, 0L);
+        age = 0;
+    }
+
+    /**
+     * Starts a new search: entries stored from now on are younger than the existing ones
+     */
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    /**
+     * Looks up a position
+     * @param key The position's Zobrist key
+     * @return The packed entry data, or 0 if the position is not stored
+     */
+    public long probe(long key) {
+        probes.increment();
+        int index = bucketIndex(key);
+        for (int i = index; i < index + BUCKET_SIZE; i++) {
+            long entry = data[i];
+            if (entry != 0 && (checks[i] ^ entry) == key) {
+                hits.increment();
+                return entry;
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Stores a search result
+     * @param key The position's Zobrist key
+     * @param move The best move found, or Move.NONE
+     * @param score The score, already adjusted for mate distance from this node
+     * @param depth The remaining depth the score was searched to
+     * @param bound One of the BOUND_ constants
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int index = bucketIndex(key);
+        int target = index;
+        int lowestWorth = Integer.MAX_VALUE;
+
+        for (int i = index; i < index + BUCKET_SIZE; i++) {
+            long entry = data[i];
+            if (entry == 0) {
+                target = i;
+                break;
+            }
+            if ((checks[i] ^ entry) == key) {
+                // Same position: keep the old move if the new search found none, and
+                // do not let a much shallower bound replace a deeper entry of this search
+                if (move == 0) {
+                    move = move(entry);
+                }
+                if (bound != BOUND_EXACT && depth(entry) > depth + 2 && age(entry) == age) {
+                    return;
+                }
+                target = i;
+                lowestWorth = Integer.MIN_VALUE;
+                break;
+            }
+
+            // Entries from older searches are worth 8 plies less per search of age
+            int ageDifference = (age - age(entry)) & 0xFF;
+            int worth = depth(entry) - 8 * ageDifference;
+            if (worth < lowestWorth) {
+                lowestWorth = worth;
+                target = i;
+            }
+        }
+
+        if (lowestWorth != Integer.MIN_VALUE && data[target] != 0) {
+            collisions.increment();
+        }
+
+        long entry = (move & 0xFFFFFFFL)
+                   | ((long) (score & 0xFFFF) << 28)
+                   | ((long) (depth & 0xFF) << 44)
+                   | ((long) bound << 52)
+                   | ((long) age << 54);
+        data[target] = entry;
+        checks[target] = key ^ entry;
+        stores.increment();
+    }
+
+    private int bucketIndex(long key) {
+        return (int) key & mask & ~(BUCKET_SIZE - 1);
+    }
+
+    // Entry field decoders
+    public static int move(long entry) { return (int) (entry & 0xFFFFFFFL); }
+    public static int score(long entry) { return (short) (entry >>> 28); }
+    public static int depth(long entry) { return (byte) (entry >>> 44); }
+    public static int bound(long entry) { return (int) (entry >>> 52) & 3; }
+    private static int age(long entry) { return (int) (entry >>> 54) & 0xFF; }
+
+    /**
+     * Gets the per mille of sampled slots filled during the current search (UCI "hashfull")
+     */
+    public int getHashfull() {
+        int sample = Math.min(1000, data.length);
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            if (data[i] != 0 && age(data[i]) == age) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    public int getCapacity() {
+        return data.length;
+    }
+
+    // Statistics
+    public long getProbes() { return probes.sum(); }
+    public long getHits() { return hits.sum(); }
+    public long getStores() { return stores.sum(); }
+    public long getCollisions() { return collisions.sum(); }
+
+    public void resetStatistics() {
+        probes.reset();
+        hits.reset();
+        stores.reset();
+        collisions.reset();
+    }
+}
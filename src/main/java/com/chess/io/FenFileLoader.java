@@ -0,0 +1,266 @@
+package com.chess.io;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.chess.board.FenCodec;
+import com.chess.board.Position;
+
+/**
+ * Parallel loader for large FEN and EPD files
+ *
+ * The file is memory-mapped and cut into line-aligned byte ranges, which worker
+ * threads parse with FenCodec into a per-thread Position and hand to a consumer.
+ * Nothing is copied onto the heap and no String is created per line.
+ *
+ * One position per line. A line holds either a full FEN, or the four EPD fields
+ * (placement, side, castling, en passant) followed by operations such as
+ * "bm Nf3; id \"x\";", which are ignored. Blank lines and lines starting with '#'
+ * are skipped; lines that do not parse are counted as errors and skipped.
+ */
+public class FenFileLoader {
+
+    // Largest range mapped at once, well below the 2 GB limit of a single mapping
+    private static final long MAX_RANGE_BYTES = 64L << 20;
+    // Ranges per thread, so a thread that finishes early can take another
+    private static final int RANGES_PER_THREAD = 4;
+    // Bytes mapped at a time while looking for the line end after a range split
+    private static final int SCAN_WINDOW = 4096;
+
+    private final int threads;
+
+    /**
+     * Creates a loader using one thread per available processor
+     */
+    public FenFileLoader() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param threads The number of parsing threads, at least 1
+     */
+    public FenFileLoader(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Counts of a completed load
+     */
+    public static class Result {
+        private final long positions;
+        private final long errors;
+        private final long timeMillis;
+
+        public Result(long positions, long errors, long timeMillis) {
+            this.positions = positions;
+            this.errors = errors;
+            this.timeMillis = timeMillis;
+        }
+
+        // Getters
+        public long getPositions() { return positions; }
+        public long getErrors() { return errors; }
+        public long getTimeMillis() { return timeMillis; }
+
+        /**
+         * Gets the positions loaded per second
+         */
+        public long getPositionsPerSecond() {
+            return positions * 1000 / Math.max(1, timeMillis);
+        }
+    }
+
+    /**
+     * Loads every position of a file, returning once all have been consumed
+     * @param file The FEN or EPD file
+     * @param consumer Called for every position, from several threads at once
+     * @return The number of positions and invalid lines
+     * @throws IOException If the file cannot be read
+     */
+    public Result load(Path file, PositionConsumer consumer) throws IOException {
+        long start = System.currentTimeMillis();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] boundaries = split(channel, channel.size());
+
+            ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "fen-loader");
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                List<Future<long[]>> ranges = new ArrayList<>();
+                for (int i = 0; i + 1 < boundaries.length; i++) {
+                    long from = boundaries[i];
+                    long to = boundaries[i + 1];
+                    if (to > from) {
+                        ranges.add(pool.submit(() -> loadRange(channel, from, to, consumer)));
+                    }
+                }
+
+                long positions = 0;
+                long errors = 0;
+                for (Future<long[]> range : ranges) {
+                    long[] counts = await(range);
+                    positions += counts[0];
+                    errors += counts[1];
+                }
+                return new Result(positions, errors, System.currentTimeMillis() - start);
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    private static long[] await(Future<long[]> range) throws IOException {
+        try {
+            return range.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Loader thread failed", cause);
+        }
+    }
+
+    /**
+     * Cuts the file into ranges that start at the beginning of a line
+     * @return The range boundaries: range i is [boundaries[i], boundaries[i + 1])
+     */
+    private long[] split(FileChannel channel, long size) throws IOException {
+        int count = (int) Math.max((long) threads * RANGES_PER_THREAD, (size + MAX_RANGE_BYTES - 1) / MAX_RANGE_BYTES);
+        count = (int) Math.max(1, Math.min(count, size / SCAN_WINDOW + 1));
+
+        long[] boundaries = new long[count + 1];
+        for (int i = 1; i < count; i++) {
+            boundaries[i] = nextLineStart(channel, Math.max(size / count * i, boundaries[i - 1]), size);
+        }
+        boundaries[count] = size;
+        return boundaries;
+    }
+
+    /**
+     * Finds the first line start at or after an offset
+     */
+    private static long nextLineStart(FileChannel channel, long offset, long size) throws IOException {
+        if (offset == 0) {
+            return 0;
+        }
+        // The line starts at offset itself if the byte before it ends a line
+        long position = offset - 1;
+        while (position < size) {
+            int length = (int) Math.min(SCAN_WINDOW, size - position);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            for (int i = 0; i < length; i++) {
+                if (window.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += length;
+        }
+        return size;
+    }
+
+    /**
+     * Parses the lines of one range
+     * @return The number of positions and of invalid lines
+     */
+    private static long[] loadRange(FileChannel channel, long from, long to, PositionConsumer consumer)
+            throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        FenCodec codec = new FenCodec();
+        Position position = new Position();
+        int limit = buffer.limit();
+        long positions = 0;
+        long errors = 0;
+
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+
+            int first = lineStart;
+            while (first < lineEnd && (buffer.get(first) == ' ' || buffer.get(first) == '\t')) {
+                first++;
+            }
+            int fenEnd = fenEnd(buffer, first, lineEnd);
+            if (fenEnd > first && buffer.get(first) != '#') {
+                boolean parsed;
+                try {
+                    codec.parse(buffer, first, fenEnd, position);
+                    parsed = true;
+                } catch (IllegalArgumentException e) {
+                    parsed = false;
+                }
+                if (parsed) {
+                    positions++;
+                    consumer.accept(position, from + lineStart);
+                } else {
+                    errors++;
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return new long[] {positions, errors};
+    }
+
+    /**
+     * Finds where the position fields of a line end: after the two move counters
+     * of a FEN, or after the fourth field of an EPD (whose operations follow)
+     */
+    private static int fenEnd(MappedByteBuffer buffer, int start, int end) {
+        int index = start;
+        int fields = 0;
+        while (index < end) {
+            while (index < end && buffer.get(index) <= ' ') {
+                index++;
+            }
+            if (index == end) {
+                break;
+            }
+            int fieldStart = index;
+            while (index < end && buffer.get(index) > ' ') {
+                index++;
+            }
+            fields++;
+            // Fields 5 and 6 belong to the position only when they are counters
+            if (fields >= 5 && !isNumber(buffer, fieldStart, index)) {
+                return fieldStart;
+            }
+            if (fields == 6) {
+                return index;
+            }
+        }
+        return index;
+    }
+
+    private static boolean isNumber(MappedByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte c = buffer.get(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,84 @@
+package com.chess.io;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.chess.board.Position;
+import com.chess.board.TranslateFen;
+
+/**
+ * One game of a PGN file: its tag pairs, the moves played and the result
+ * Instances are reusable; PgnReader clears and refills the same game for every record.
+ */
+public class PgnGame {
+
+    public static final String WHITE_WINS = "1-0";
+    public static final String BLACK_WINS = "0-1";
+    public static final String DRAW = "1/2-1/2";
+    public static final String UNFINISHED = "*";
+
+    private final Map<String, String> tags = new LinkedHashMap<>();
+    private int[] moves = new int[256];
+    private int moveCount;
+    private String result = UNFINISHED;
+
+    /**
+     * Removes all tags and moves
+     */
+    public void clear() {
+        tags.clear();
+        moveCount = 0;
+        result = UNFINISHED;
+    }
+
+    /**
+     * Appends a move (legal in the position reached by the previous moves)
+     * @param move The encoded move
+     */
+    public void addMove(int move) {
+        if (moveCount == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        moves[moveCount++] = move;
+    }
+
+    /**
+     * Gets the FEN the game starts from: the FEN tag, or the standard starting position
+     */
+    public String getStartFen() {
+        String fen = tags.get("FEN");
+        return fen != null ? fen : TranslateFen.getStartingPositionFen();
+    }
+
+    /**
+     * Builds the position the game starts from
+     */
+    public Position getStartPosition() {
+        return Position.fromFen(getStartFen());
+    }
+
+    /**
+     * Builds the position after the last move
+     */
+    public Position getFinalPosition() {
+        Position position = getStartPosition();
+        for (int i = 0; i < moveCount; i++) {
+            position.makeMove(moves[i]);
+        }
+        return position;
+    }
+
+    // Getters
+    public String getTag(String name) { return tags.get(name); }
+    public Map<String, String> getTags() { return Collections.unmodifiableMap(tags); }
+    public int getMove(int index) { return moves[index]; }
+    public int getMoveCount() { return moveCount; }
+    public int[] getMoves() { return Arrays.copyOf(moves, moveCount); }
+    public String getResult() { return result; }
+
+    // Setters
+    public void setTag(String name, String value) { tags.put(name, value); }
+    public void setResult(String result) { this.result = result; }
+}
@@ -0,0 +1,293 @@
+package com.chess.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.chess.board.FenCodec;
+import com.chess.board.MoveList;
+import com.chess.board.Position;
+import com.chess.board.TranslateFen;
+
+/**
+ * Streaming PGN reader: returns one game at a time, so memory use does not
+ * depend on the size of the file
+ *
+ * Every SAN move is resolved against the legal moves of the current position
+ * and played, so a game that reads without error is a legal game. Comments,
+ * variations, NAGs and move numbers are skipped. A game with an illegal or
+ * unreadable move is still read to its end before the error is reported, so
+ * reading can continue with the next game.
+ */
+public class PgnReader implements Closeable {
+
+    private final Reader in;
+    private final char[] buffer = new char[1 << 16];
+    private int position;
+    private int limit;
+
+    private final StringBuilder token = new StringBuilder();
+    private final MoveList moves = new MoveList();
+    private final FenCodec codec = new FenCodec();
+    private final Position board = new Position();
+    private long games;
+
+    /**
+     * @param in The PGN text (read through this reader's own buffer, no need to wrap it)
+     */
+    public PgnReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Opens a PGN file (UTF-8, malformed bytes are replaced)
+     * @param file The file to read
+     * @throws IOException If the file cannot be opened
+     */
+    public PgnReader(Path file) throws IOException {
+        this(new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the next game
+     * @param game The game to fill (cleared first)
+     * @return false at the end of the input
+     * @throws IllegalArgumentException If the game has a malformed tag or an illegal move; the
+     *         game has then been read to its end and the next call returns the following game
+     * @throws IOException If reading fails
+     */
+    public boolean readGame(PgnGame game) throws IOException {
+        game.clear();
+        int c = skipWhitespace();
+        if (c < 0) {
+            return false;
+        }
+        games++;
+
+        String error = null;
+        while (c == '[') {
+            if (!readTag(game) && error == null) {
+                error = "malformed tag pair";
+            }
+            c = skipWhitespace();
+        }
+
+        String fen = game.getTag("FEN");
+        try {
+            codec.parse(fen != null ? fen : TranslateFen.getStartingPositionFen(), board);
+        } catch (IllegalArgumentException e) {
+            error = "invalid FEN tag: " + e.getMessage();
+        }
+
+        boolean resultSeen = false;
+        while ((c = peek()) >= 0) {
+            if (c <= ' ') {
+                position++;
+            } else if (c == '[') {
+                // The tag section of the next game
+                break;
+            } else if (c == '{') {
+                skipPast('}');
+            } else if (c == ';') {
+                skipPast('\n');
+            } else if (c == '(') {
+                skipVariation();
+            } else {
+                readToken();
+                if (isResult(token)) {
+                    game.setResult(token.toString());
+                    resultSeen = true;
+                    break;
+                }
+                // Move numbers, NAGs ($1), detached annotations (!?) and "e.p." carry no move
+                int start = moveNumberLength(token);
+                if (start == token.length() || !Character.isLetterOrDigit(token.charAt(start))
+                        || isEnPassantSuffix(token, start)) {
+                    continue;
+                }
+                if (error == null) {
+                    try {
+                        int move = San.parse(board, token.subSequence(start, token.length()), moves);
+                        board.makeMove(move);
+                        game.addMove(move);
+                    } catch (IllegalArgumentException e) {
+                        error = e.getMessage() + " at ply " + (game.getMoveCount() + 1);
+                    }
+                }
+            }
+        }
+
+        if (!resultSeen && game.getTag("Result") != null) {
+            game.setResult(game.getTag("Result"));
+        }
+        if (error != null) {
+            throw new IllegalArgumentException("Game " + games + ": " + error);
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of games read so far, including those with errors
+     */
+    public long getGamesRead() {
+        return games;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Reads [Name "Value"] (the '[' is the next character)
+     * @return false if the tag is malformed (the rest of its line is skipped)
+     */
+    private boolean readTag(PgnGame game) throws IOException {
+        position++;
+        StringBuilder name = new StringBuilder();
+        int c;
+        while ((c = peek()) >= 0 && c != '"' && c != ']' && c != '\n') {
+            if (c > ' ') {
+                name.append((char) c);
+            }
+            position++;
+        }
+        if (c != '"' || name.length() == 0) {
+            skipPast('\n');
+            return false;
+        }
+        position++;
+
+        StringBuilder value = new StringBuilder();
+        while ((c = read()) >= 0 && c != '"' && c != '\n') {
+            if (c == '\\') {
+                c = read();
+                if (c < 0) {
+                    break;
+                }
+            }
+            value.append((char) c);
+        }
+        if (c != '"') {
+            return false;
+        }
+        skipPast(']');
+        game.setTag(name.toString(), value.toString());
+        return true;
+    }
+
+    /**
+     * Reads a movetext token into token: everything up to whitespace or a character with a meaning of its own
+     */
+    private void readToken() throws IOException {
+        token.setLength(0);
+        int c;
+        while ((c = peek()) > ' ' && c != '{' && c != '}' && c != '(' && c != ')' && c != ';' && c != '[') {
+            token.append((char) c);
+            position++;
+        }
+        // A stray closing character would otherwise never be consumed
+        if (token.length() == 0) {
+            token.append((char) read());
+        }
+    }
+
+    /**
+     * Skips a (possibly nested) variation, including comments inside it
+     */
+    private void skipVariation() throws IOException {
+        int depth = 0;
+        int c;
+        while ((c = read()) >= 0) {
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                if (--depth == 0) {
+                    return;
+                }
+            } else if (c == '{') {
+                skipPast('}');
+            } else if (c == ';') {
+                skipPast('\n');
+            }
+        }
+    }
+
+    private static boolean isResult(CharSequence text) {
+        return contentEquals(text, PgnGame.WHITE_WINS) || contentEquals(text, PgnGame.BLACK_WINS)
+            || contentEquals(text, PgnGame.DRAW) || contentEquals(text, PgnGame.UNFINISHED);
+    }
+
+    private static boolean isEnPassantSuffix(CharSequence text, int start) {
+        return text.length() - start == 4 && contentEquals(text.subSequence(start, text.length()), "e.p.");
+    }
+
+    private static boolean contentEquals(CharSequence text, String value) {
+        if (text.length() != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (text.charAt(i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the length of a leading move number ("12." or "12...") of a token
+     */
+    private static int moveNumberLength(CharSequence text) {
+        int index = 0;
+        while (index < text.length() && Character.isDigit(text.charAt(index))) {
+            index++;
+        }
+        if (index == 0 || index == text.length() || text.charAt(index) != '.') {
+            // Plain digits ("12" before a separate ".") are a move number too, "0-0" is not
+            return index == text.length() ? index : 0;
+        }
+        while (index < text.length() && text.charAt(index) == '.') {
+            index++;
+        }
+        return index;
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c;
+        while ((c = peek()) >= 0 && c <= ' ') {
+            position++;
+        }
+        return c;
+    }
+
+    private void skipPast(char end) throws IOException {
+        int c;
+        while ((c = read()) >= 0 && c != end) {
+            // skip
+        }
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        if (c >= 0) {
+            position++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position];
+    }
+}
@@ -0,0 +1,134 @@
+package com.chess.io;
+
+import java.io.IOException;
+import java.util.Map;
+
+import com.chess.board.MoveGenerator;
+import com.chess.board.MoveList;
+import com.chess.board.Position;
+import com.chess.board.TranslateFen;
+import com.chess.utils.gameHandler;
+
+/**
+ * Writes games in PGN export format: the seven tag roster first, then the other
+ * tags, then the SAN movetext wrapped at 80 columns, then a blank line
+ */
+public class PgnWriter {
+
+    private static final int LINE_LENGTH = 80;
+    private static final String[] SEVEN_TAG_ROSTER = {"Event", "Site", "Date", "Round", "White", "Black", "Result"};
+
+    private final Appendable out;
+    private final MoveList moves = new MoveList();
+    private final StringBuilder line = new StringBuilder(LINE_LENGTH + 16);
+
+    /**
+     * @param out Where the PGN text goes (a Writer, StringBuilder, ...)
+     */
+    public PgnWriter(Appendable out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes a game
+     * @param game The game to write
+     * @throws IOException If writing fails
+     */
+    public void write(PgnGame game) throws IOException {
+        for (String name : SEVEN_TAG_ROSTER) {
+            String value = name.equals("Result") ? game.getResult() : game.getTag(name);
+            writeTag(name, value != null ? value : name.equals("Date") ? "????.??.??" : "?");
+        }
+        for (Map.Entry<String, String> tag : game.getTags().entrySet()) {
+            if (!isRosterTag(tag.getKey())) {
+                writeTag(tag.getKey(), tag.getValue());
+            }
+        }
+        out.append('\n');
+
+        Position position = game.getStartPosition();
+        line.setLength(0);
+        for (int i = 0; i < game.getMoveCount(); i++) {
+            int move = game.getMove(i);
+            // Move numbers before white's moves, and before the first move if black starts
+            if (position.getSideToMove() == Position.WHITE) {
+                appendWord(position.getFullmoveNumber() + ".");
+            } else if (i == 0) {
+                appendWord(position.getFullmoveNumber() + "...");
+            }
+            appendWord(San.toString(position, move, moves));
+            position.makeMove(move);
+        }
+        appendWord(game.getResult());
+        out.append(line).append("\n\n");
+    }
+
+    /**
+     * Writes the game played in a UI session
+     * @param session The session, its moves are taken from its move history
+     * @throws IOException If writing fails
+     */
+    public void write(gameHandler session) throws IOException {
+        PgnGame game = new PgnGame();
+        String startFen = session.getStartFen();
+        if (!startFen.equals(TranslateFen.getStartingPositionFen())) {
+            game.setTag("SetUp", "1");
+            game.setTag("FEN", startFen);
+        }
+        Position position = game.getStartPosition();
+        for (int move : session.getMoveHistory()) {
+            game.addMove(move);
+            position.makeMove(move);
+        }
+        game.setResult(resultOf(position));
+        write(game);
+    }
+
+    /**
+     * Gets the result of a game that ended in a position: decided by checkmate or stalemate, else unfinished
+     */
+    private String resultOf(Position position) {
+        if (MoveGenerator.hasLegalMove(position, moves)) {
+            return PgnGame.UNFINISHED;
+        }
+        if (!position.isInCheck()) {
+            return PgnGame.DRAW;
+        }
+        return position.getSideToMove() == Position.WHITE ? PgnGame.BLACK_WINS : PgnGame.WHITE_WINS;
+    }
+
+    private void writeTag(String name, String value) throws IOException {
+        out.append('[').append(name).append(" \"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\');
+            }
+            out.append(c);
+        }
+        out.append("\"]\n");
+    }
+
+    private static boolean isRosterTag(String name) {
+        for (String roster : SEVEN_TAG_ROSTER) {
+            if (roster.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds a word to the current movetext line, starting a new line when it would get too long
+     */
+    private void appendWord(String word) throws IOException {
+        if (line.length() > 0 && line.length() + 1 + word.length() > LINE_LENGTH) {
+            out.append(line).append('\n');
+            line.setLength(0);
+        }
+        if (line.length() > 0) {
+            line.append(' ');
+        }
+        line.append(word);
+    }
+}
@@ -0,0 +1,20 @@
+package com.chess.io;
+
+import com.chess.board.Position;
+
+/**
+ * Receives the positions read by a bulk loader
+ *
+ * Loaders call it from several threads at once and reuse the position object
+ * for the next line, so an implementation must be thread-safe and must copy
+ * (new Position(position)) anything it keeps.
+ */
+@FunctionalInterface
+public interface PositionConsumer {
+
+    /**
+     * @param position The parsed position (only valid during the call)
+     * @param offset The byte offset of the position's line in the file
+     */
+    void accept(Position position, long offset);
+}
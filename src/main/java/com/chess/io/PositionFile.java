@@ -0,0 +1,95 @@
+package com.chess.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.chess.board.PackedPosition;
+import com.chess.board.Position;
+
+/**
+ * Read-only, memory-mapped file of fixed-size PackedPosition records
+ *
+ * The file is a 16-byte header (magic "CHPS", format version, record size)
+ * followed by 32-byte records, so record i starts at byte 16 + 32 * i and any
+ * record can be read directly without scanning or parsing. Files larger than
+ * 2 GB are mapped in segments. Reads are thread-safe. Written by PositionFileWriter.
+ */
+public class PositionFile implements Closeable {
+
+    static final int MAGIC = 0x43485053; // "CHPS"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+
+    // Records per mapped segment (1 GB), a power of two so a record index splits with shifts
+    private static final int SEGMENT_SHIFT = 25;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long size;
+
+    /**
+     * Opens and maps a position file
+     * @param file The file written by PositionFileWriter
+     * @throws IOException If the file cannot be read or is not a position file
+     */
+    public PositionFile(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long length = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // read the whole header
+            }
+            if (header.position() < HEADER_SIZE || header.getInt(0) != MAGIC) {
+                throw new IOException("Not a position file: " + file);
+            }
+            if (header.getInt(4) != VERSION || header.getInt(8) != PackedPosition.SIZE) {
+                throw new IOException("Unsupported position file version " + header.getInt(4) + ": " + file);
+            }
+            size = (length - HEADER_SIZE) / PackedPosition.SIZE;
+
+            int count = (int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+            segments = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long first = (long) i << SEGMENT_SHIFT;
+                long records = Math.min(size - first, 1L << SEGMENT_SHIFT);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                    HEADER_SIZE + first * PackedPosition.SIZE, records * PackedPosition.SIZE);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads a record
+     * @param index The record index, from 0 to size() - 1
+     * @param position The position to overwrite
+     */
+    public void read(long index, Position position) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Record " + index + " of " + size);
+        }
+        PackedPosition.decode(segments[(int) (index >>> SEGMENT_SHIFT)],
+            (int) (index & SEGMENT_MASK) * PackedPosition.SIZE, position);
+    }
+
+    /**
+     * Gets the number of records
+     */
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,74 @@
+package com.chess.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.chess.board.PackedPosition;
+import com.chess.board.Position;
+
+/**
+ * Writes a PositionFile: the header, then one 32-byte record per appended position
+ * Records are batched in a direct buffer and written with few system calls.
+ */
+public class PositionFileWriter implements Closeable {
+
+    private static final int BATCH_RECORDS = 2048;
+
+    private final FileChannel channel;
+    private final ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_RECORDS * PackedPosition.SIZE);
+    private long count;
+
+    /**
+     * Creates (or replaces) a position file
+     * @param file The file to write
+     * @throws IOException If the file cannot be created
+     */
+    public PositionFileWriter(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        batch.putInt(PositionFile.MAGIC).putInt(PositionFile.VERSION).putInt(PackedPosition.SIZE).putInt(0);
+    }
+
+    /**
+     * Appends a position as the next record
+     * @param position The position to store
+     * @return The index of the record
+     * @throws IOException If writing fails
+     */
+    public long append(Position position) throws IOException {
+        if (batch.remaining() < PackedPosition.SIZE) {
+            flush();
+        }
+        PackedPosition.encode(position, batch, batch.position());
+        batch.position(batch.position() + PackedPosition.SIZE);
+        return count++;
+    }
+
+    /**
+     * Gets the number of records appended so far
+     */
+    public long getCount() {
+        return count;
+    }
+
+    private void flush() throws IOException {
+        batch.flip();
+        while (batch.hasRemaining()) {
+            channel.write(batch);
+        }
+        batch.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.chess.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.chess.board.Position;
+
+/**
+ * Off-heap index of distinct positions, counting how often each was seen and the game results
+ *
+ * An open-addressing hash table (linear probing) keyed by the Zobrist key, with
+ * 32-byte slots outside the Java heap:
+ *   key (8 bytes), occurrences (8), white wins (4), draws (4), black wins (4), unused (4)
+ * It doubles when three quarters full. Once a table would exceed the memory limit
+ * it is placed in a memory-mapped temporary file instead, so the index can grow
+ * beyond RAM and the operating system pages it in and out. Spill files are
+ * deleted on close.
+ *
+ * Positions are identified by key only: distinct positions with the same 64-bit
+ * key (and the key 0, stored as a fixed substitute) are counted together, which
+ * is negligible for corpus statistics. Methods are synchronized, so ingestion
+ * threads can share one index. PGN games are added with addGame; as a
+ * PositionConsumer the index takes the positions of FenFileLoader directly
+ * (without results, which FEN/EPD lines do not carry).
+ */
+public class PositionIndex implements PositionConsumer, Closeable {
+
+    public static final int UNKNOWN = 0;
+    public static final int WHITE_WINS = 1;
+    public static final int DRAW = 2;
+    public static final int BLACK_WINS = 3;
+
+    private static final int SLOT_SIZE = 32;
+    private static final int OCCURRENCES = 8;
+    private static final int WHITE_WIN_COUNT = 16;
+    private static final int DRAW_COUNT = 20;
+    private static final int BLACK_WIN_COUNT = 24;
+
+    // Slots per buffer (1 GB), a power of two so a slot index splits with shifts
+    private static final int SEGMENT_SHIFT = 25;
+    private static final int MIN_CAPACITY = 1024;
+    // Stands in for key 0, which marks an empty slot
+    private static final long ZERO_KEY = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Receives the entries of the index
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(long key, long occurrences, int whiteWins, int draws, int blackWins);
+    }
+
+    private final long memoryLimit;
+    private final Path spillDirectory;
+
+    private ByteBuffer[] segments;
+    private long mask;
+    private long size;
+    private long total;
+    // The file behind the current table, null while the table is in memory
+    private Path spillFile;
+    private boolean closed;
+
+    /**
+     * Creates an index that stays in memory
+     * @param expectedPositions The number of distinct positions to size the table for
+     */
+    public PositionIndex(long expectedPositions) {
+        this(expectedPositions, Long.MAX_VALUE, null);
+    }
+
+    /**
+     * Creates an index that moves to a memory-mapped file once it outgrows a memory limit
+     * @param expectedPositions The number of distinct positions to size the table for
+     * @param memoryLimit The largest table in bytes to keep in (direct) memory
+     * @param spillDirectory Where spill files are created
+     */
+    public PositionIndex(long expectedPositions, long memoryLimit, Path spillDirectory) {
+        if (expectedPositions < 0 || memoryLimit < 0) {
+            throw new IllegalArgumentException("Sizes must not be negative");
+        }
+        if (memoryLimit != Long.MAX_VALUE && spillDirectory == null) {
+            throw new IllegalArgumentException("A memory limit needs a spill directory");
+        }
+        this.memoryLimit = memoryLimit;
+        this.spillDirectory = spillDirectory;
+
+        long capacity = MIN_CAPACITY;
+        while (capacity * 3 / 4 < expectedPositions) {
+            capacity <<= 1;
+        }
+        try {
+            allocate(capacity);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create spill file in " + spillDirectory, e);
+        }
+    }
+
+    /**
+     * Maps a PGN result ("1-0", "0-1", "1/2-1/2") to a result code
+     * @return The result code, UNKNOWN for "*" or anything else
+     */
+    public static int resultOf(String pgnResult) {
+        if (PgnGame.WHITE_WINS.equals(pgnResult)) {
+            return WHITE_WINS;
+        }
+        if (PgnGame.BLACK_WINS.equals(pgnResult)) {
+            return BLACK_WINS;
+        }
+        if (PgnGame.DRAW.equals(pgnResult)) {
+            return DRAW;
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Counts one occurrence of a position
+     * @param position The position
+     * @param result The result of the game it occurred in (UNKNOWN ... BLACK_WINS)
+     * @return The number of times the position has been seen, including this one
+     */
+    public long add(Position position, int result) throws IOException {
+        return add(position.getKey(), result);
+    }
+
+    /**
+     * Counts a position read by a bulk loader, with an unknown result
+     * @throws UncheckedIOException If growing into a spill file fails
+     */
+    @Override
+    public void accept(Position position, long offset) {
+        try {
+            add(position.getKey(), UNKNOWN);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Counts every position of a game, from the start position to the final one
+     * @param game The game, counted with its result
+     */
+    public void addGame(PgnGame game) throws IOException {
+        int result = resultOf(game.getResult());
+        Position position = game.getStartPosition();
+        add(position.getKey(), result);
+        for (int i = 0; i < game.getMoveCount(); i++) {
+            position.makeMove(game.getMove(i));
+            add(position.getKey(), result);
+        }
+    }
+
+    /**
+     * Counts one occurrence of a position key
+     * @param key The Zobrist key
+     * @param result The result of the game it occurred in (UNKNOWN ... BLACK_WINS)
+     * @return The number of times the key has been seen, including this one
+     * @throws IOException If growing into a spill file fails
+     */
+    public synchronized long add(long key, int result) throws IOException {
+        ensureOpen();
+        if (result < UNKNOWN || result > BLACK_WINS) {
+            throw new IllegalArgumentException("Invalid result code: " + result);
+        }
+        if (key == 0) {
+            key = ZERO_KEY;
+        }
+        if (size + 1 > (mask + 1) * 3 / 4) {
+            allocate((mask + 1) << 1);
+        }
+
+        long slot = find(key);
+        ByteBuffer segment = segment(slot);
+        int offset = offset(slot);
+        if (segment.getLong(offset) == 0) {
+            segment.putLong(offset, key);
+            size++;
+        }
+        long occurrences = segment.getLong(offset + OCCURRENCES) + 1;
+        segment.putLong(offset + OCCURRENCES, occurrences);
+        if (result != UNKNOWN) {
+            int field = result == WHITE_WINS ? WHITE_WIN_COUNT : result == DRAW ? DRAW_COUNT : BLACK_WIN_COUNT;
+            segment.putInt(offset + field, segment.getInt(offset + field) + 1);
+        }
+        total++;
+        return occurrences;
+    }
+
+    /**
+     * Looks up the counts of a position key
+     * @param key The Zobrist key
+     * @param counts Receives occurrences, white wins, draws and black wins (at least 4 elements)
+     * @return false if the key was never added (counts is left unchanged)
+     */
+    public synchronized boolean get(long key, long[] counts) {
+        ensureOpen();
+        if (counts.length < 4) {
+            throw new IllegalArgumentException("Counts array needs 4 elements, got " + counts.length);
+        }
+        if (key == 0) {
+            key = ZERO_KEY;
+        }
+        long slot = find(key);
+        ByteBuffer segment = segment(slot);
+        int offset = offset(slot);
+        if (segment.getLong(offset) == 0) {
+            return false;
+        }
+        counts[0] = segment.getLong(offset + OCCURRENCES);
+        counts[1] = segment.getInt(offset + WHITE_WIN_COUNT);
+        counts[2] = segment.getInt(offset + DRAW_COUNT);
+        counts[3] = segment.getInt(offset + BLACK_WIN_COUNT);
+        return true;
+    }
+
+    /**
+     * Visits every distinct position, in table order
+     */
+    public synchronized void forEach(Visitor visitor) {
+        ensureOpen();
+        for (long slot = 0; slot <= mask; slot++) {
+            ByteBuffer segment = segment(slot);
+            int offset = offset(slot);
+            long key = segment.getLong(offset);
+            if (key != 0) {
+                visitor.visit(key, segment.getLong(offset + OCCURRENCES), segment.getInt(offset + WHITE_WIN_COUNT),
+                    segment.getInt(offset + DRAW_COUNT), segment.getInt(offset + BLACK_WIN_COUNT));
+            }
+        }
+    }
+
+    /**
+     * Gets the number of distinct positions
+     */
+    public synchronized long size() {
+        ensureOpen();
+        return size;
+    }
+
+    /**
+     * Gets the number of positions added, duplicates included
+     */
+    public synchronized long getTotal() {
+        ensureOpen();
+        return total;
+    }
+
+    /**
+     * Checks if the table lives in a memory-mapped spill file
+     */
+    public synchronized boolean isSpilled() {
+        ensureOpen();
+        return spillFile != null;
+    }
+
+    /**
+     * Releases the table and deletes the spill file; the index cannot be used afterwards
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        segments = null;
+        if (spillFile != null) {
+            Files.deleteIfExists(spillFile);
+            spillFile = null;
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Position index is closed");
+        }
+    }
+
+    /**
+     * Finds the slot holding a key, or the empty slot where it belongs
+     */
+    private long find(long key) {
+        long slot = key & mask;
+        while (true) {
+            long stored = segment(slot).getLong(offset(slot));
+            if (stored == key || stored == 0) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private ByteBuffer segment(long slot) {
+        return segments[(int) (slot >>> SEGMENT_SHIFT)];
+    }
+
+    private static int offset(long slot) {
+        return (int) (slot & ((1L << SEGMENT_SHIFT) - 1)) * SLOT_SIZE;
+    }
+
+    /**
+     * Replaces the table with an empty one of a new capacity and moves every entry over
+     */
+    private void allocate(long capacity) throws IOException {
+        ByteBuffer[] oldSegments = segments;
+        long oldCapacity = segments == null ? 0 : mask + 1;
+        Path oldSpillFile = spillFile;
+
+        long bytes = capacity * SLOT_SIZE;
+        int count = (int) Math.max(1, capacity >>> SEGMENT_SHIFT);
+        long segmentBytes = bytes / count;
+        ByteBuffer[] newSegments = new ByteBuffer[count];
+        Path newSpillFile = null;
+
+        if (bytes <= memoryLimit) {
+            for (int i = 0; i < count; i++) {
+                newSegments[i] = ByteBuffer.allocateDirect((int) segmentBytes);
+            }
+        } else {
+            // Mapping past the end of the new file extends it with zeros, which are empty slots
+            newSpillFile = Files.createTempFile(spillDirectory, "position-index", ".bin");
+            try (FileChannel channel = FileChannel.open(newSpillFile, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                for (int i = 0; i < count; i++) {
+                    newSegments[i] = channel.map(FileChannel.MapMode.READ_WRITE, i * segmentBytes, segmentBytes);
+                }
+            } catch (IOException | RuntimeException e) {
+                // Not yet the spill file, so close() would never delete it (e.g., disk full)
+                Files.deleteIfExists(newSpillFile);
+                throw e;
+            }
+        }
+
+        segments = newSegments;
+        mask = capacity - 1;
+        spillFile = newSpillFile;
+
+        for (long slot = 0; slot < oldCapacity; slot++) {
+            ByteBuffer from = oldSegments[(int) (slot >>> SEGMENT_SHIFT)];
+            int fromOffset = offset(slot);
+            long key = from.getLong(fromOffset);
+            if (key != 0) {
+                long target = find(key);
+                ByteBuffer to = segment(target);
+                int toOffset = offset(target);
+                for (int i = 0; i < SLOT_SIZE; i += 8) {
+                    to.putLong(toOffset + i, from.getLong(fromOffset + i));
+                }
+            }
+        }
+
+        // The old mapping stays valid until collected; the file itself is no longer needed
+        if (oldSpillFile != null) {
+            Files.deleteIfExists(oldSpillFile);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.chess.io;
+
+import com.chess.board.Move;
+import com.chess.board.MoveGenerator;
+import com.chess.board.MoveList;
+import com.chess.board.Position;
+
+/**
+ * Standard algebraic notation (SAN), as used in PGN movetext
+ *
+ * Parsing resolves a SAN token against the legal moves of a position and is
+ * lenient about what real-world PGN contains: check and annotation suffixes
+ * (+ # ! ?), an "e.p." suffix, castling written with zeros, promotions with or
+ * without '=' and a redundant or missing capture sign.
+ */
+public final class San {
+
+    private static final String PIECE_LETTERS = " PRNBQK";
+
+    private San() {
+    }
+
+    /**
+     * Finds the legal move a SAN token stands for
+     * @param position The position the move is played in
+     * @param san The SAN token (e.g., "Nbd7", "exd6 e.p.", "O-O-O", "e8=Q+")
+     * @param moves A scratch list for the legal moves (cleared first)
+     * @return The encoded move
+     * @throws IllegalArgumentException If the token is malformed, illegal or ambiguous
+     */
+    public static int parse(Position position, CharSequence san, MoveList moves) {
+        int end = san.length();
+        // Suffixes: check, mate, annotations and "e.p."
+        while (end > 0) {
+            char c = san.charAt(end - 1);
+            if (c == '+' || c == '#' || c == '!' || c == '?' || c == ' ') {
+                end--;
+            } else if (end >= 4 && c == '.' && san.charAt(end - 2) == 'p' && san.charAt(end - 3) == '.'
+                    && san.charAt(end - 4) == 'e') {
+                end -= 4;
+            } else {
+                break;
+            }
+        }
+        if (end < 2) {
+            throw new IllegalArgumentException("Invalid SAN move: " + san);
+        }
+
+        moves.clear();
+        MoveGenerator.generateLegalMoves(position, moves);
+
+        // Castling
+        char first = san.charAt(0);
+        if (first == 'O' || first == '0') {
+            int toCol;
+            if (isCastling(san, end, first, 5)) {
+                toCol = 2;
+            } else if (isCastling(san, end, first, 3)) {
+                toCol = 6;
+            } else {
+                throw new IllegalArgumentException("Invalid SAN move: " + san);
+            }
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+                if (Move.isCastle(move) && Position.col(Move.to(move)) == toCol) {
+                    return move;
+                }
+            }
+            throw new IllegalArgumentException("Illegal move: " + san);
+        }
+
+        // Promotion piece, with or without '='
+        int promotion = 0;
+        int promotionIndex = PIECE_LETTERS.indexOf(Character.toUpperCase(san.charAt(end - 1)));
+        if (promotionIndex >= Position.ROOK && promotionIndex <= Position.QUEEN && end >= 3
+                && (san.charAt(end - 2) == '=' || Character.isDigit(san.charAt(end - 2)))) {
+            promotion = promotionIndex;
+            end -= san.charAt(end - 2) == '=' ? 2 : 1;
+        }
+
+        // Destination square
+        if (end < 2) {
+            throw new IllegalArgumentException("Invalid SAN move: " + san);
+        }
+        char toFile = san.charAt(end - 2);
+        char toRank = san.charAt(end - 1);
+        if (toFile < 'a' || toFile > 'h' || toRank < '1' || toRank > '8') {
+            throw new IllegalArgumentException("Invalid SAN move: " + san);
+        }
+        int to = Position.square(8 - (toRank - '0'), toFile - 'a');
+
+        // Moving piece, then any disambiguating file and rank in between
+        int start = 0;
+        int type = Position.PAWN;
+        int letter = PIECE_LETTERS.indexOf(first);
+        if (letter >= Position.PAWN) {
+            type = letter;
+            start = 1;
+        }
+        int fromFile = -1;
+        int fromRank = -1;
+        for (int i = start; i < end - 2; i++) {
+            char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRank = 8 - (c - '0');
+            } else if (c != 'x' && c != ':' && c != '-') {
+                throw new IllegalArgumentException("Invalid SAN move: " + san);
+            }
+        }
+
+        int found = Move.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int from = Move.from(move);
+            if (Move.to(move) != to || (Move.piece(move) & 7) != type || Move.isCastle(move)
+                    || (fromFile >= 0 && Position.col(from) != fromFile)
+                    || (fromRank >= 0 && Position.row(from) != fromRank)
+                    || (Move.isPromotion(move) ? Move.promotion(move) : 0) != promotion) {
+                continue;
+            }
+            if (found != Move.NONE) {
+                throw new IllegalArgumentException("Ambiguous move: " + san);
+            }
+            found = move;
+        }
+        if (found == Move.NONE) {
+            throw new IllegalArgumentException("Illegal move: " + san);
+        }
+        return found;
+    }
+
+    private static boolean isCastling(CharSequence san, int end, char letter, int length) {
+        if (end != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (san.charAt(i) != (i % 2 == 0 ? letter : '-')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes a legal move in SAN, with the check or mate suffix
+     * @param position The position the move is played in (restored before returning)
+     * @param move The encoded legal move
+     * @param moves A scratch list for the legal moves (cleared first)
+     * @return The SAN text (e.g., "Nbd7", "exd6", "O-O-O", "e8=Q+")
+     */
+    public static String toString(Position position, int move, MoveList moves) {
+        StringBuilder san = new StringBuilder(8);
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int type = Move.piece(move) & 7;
+
+        if (Move.isCastle(move)) {
+            san.append(Position.col(to) == 6 ? "O-O" : "O-O-O");
+        } else if (type == Position.PAWN) {
+            if (Move.isCapture(move)) {
+                san.append((char) ('a' + Position.col(from))).append('x');
+            }
+            san.append(Position.squareToString(to));
+            if (Move.isPromotion(move)) {
+                san.append('=').append(PIECE_LETTERS.charAt(Move.promotion(move)));
+            }
+        } else {
+            san.append(PIECE_LETTERS.charAt(type));
+
+            // Disambiguate by file, else by rank, else by both
+            moves.clear();
+            MoveGenerator.generateLegalMoves(position, moves);
+            boolean ambiguous = false;
+            boolean sameFile = false;
+            boolean sameRank = false;
+            for (int i = 0; i < moves.size(); i++) {
+                int other = moves.get(i);
+                int otherFrom = Move.from(other);
+                if (other != move && otherFrom != from && Move.to(other) == to && (Move.piece(other) & 7) == type) {
+                    ambiguous = true;
+                    sameFile |= Position.col(otherFrom) == Position.col(from);
+                    sameRank |= Position.row(otherFrom) == Position.row(from);
+                }
+            }
+            if (ambiguous) {
+                if (!sameFile) {
+                    san.append((char) ('a' + Position.col(from)));
+                } else if (!sameRank) {
+                    san.append((char) ('0' + 8 - Position.row(from)));
+                } else {
+                    san.append(Position.squareToString(from));
+                }
+            }
+            if (Move.isCapture(move)) {
+                san.append('x');
+            }
+            san.append(Position.squareToString(to));
+        }
+
+        position.makeMove(move);
+        if (position.isInCheck()) {
+            san.append(MoveGenerator.hasLegalMove(position, moves) ? '+' : '#');
+        }
+        position.unmakeMove(move);
+        return san.toString();
+    }
+}
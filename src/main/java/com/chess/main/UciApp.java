@@ -0,0 +1,308 @@
+package com.chess.main;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+
+import com.chess.board.Move;
+import com.chess.board.MoveGenerator;
+import com.chess.board.MoveList;
+import com.chess.board.Position;
+import com.chess.board.TranslateFen;
+import com.chess.engine.Engine;
+import com.chess.engine.SearchLimits;
+import com.chess.engine.SearchResult;
+
+/**
+ * Headless entry point speaking the UCI protocol on standard input and output
+ *
+ * Supported commands: uci, isready, ucinewgame, setoption (Hash, Threads),
+ * position (startpos | fen ...) [moves ...], go (depth, movetime, nodes,
+ * wtime/btime/winc/binc/movestogo, infinite), stop and quit. The search runs
+ * on its own thread so stop and isready are answered while it thinks; every
+ * completed iteration is reported as an info line.
+ */
+public class UciApp {
+
+    private static final String NAME = "ChessProject";
+    private static final int MAX_HASH_MB = 4096;
+    private static final int MAX_THREADS = 256;
+
+    private final Engine engine = new Engine();
+    private final PrintStream out;
+    private Position position = Position.fromFen(TranslateFen.getStartingPositionFen());
+    private Thread searchThread;
+    // Set by stop; an infinite search holds back its bestmove until then
+    private volatile boolean stopRequested;
+
+    public UciApp(PrintStream out) {
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        UciApp uci = new UciApp(System.out);
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (!uci.handle(line)) {
+                return;
+            }
+        }
+        uci.stopSearch();
+    }
+
+    /**
+     * Executes a single command line
+     * @param line The line read from the GUI
+     * @return false once quit was received
+     */
+    public boolean handle(String line) {
+        String[] tokens = line.trim().split("\\s+");
+        try {
+            switch (tokens[0]) {
+                case "uci":
+                    send("id name " + NAME);
+                    send("id author " + NAME + " developers");
+                    send("option name Hash type spin default " + Engine.DEFAULT_HASH_MB + " min 1 max " + MAX_HASH_MB);
+                    send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                    send("uciok");
+                    break;
+                case "isready":
+                    send("readyok");
+                    break;
+                case "ucinewgame":
+                    stopSearch();
+                    engine.getTranspositionTable().clear();
+                    position = Position.fromFen(TranslateFen.getStartingPositionFen());
+                    break;
+                case "setoption":
+                    stopSearch();
+                    setOption(tokens);
+                    break;
+                case "position":
+                    stopSearch();
+                    position = parsePosition(tokens);
+                    break;
+                case "go":
+                    stopSearch();
+                    go(tokens);
+                    break;
+                case "stop":
+                    stopSearch();
+                    break;
+                case "quit":
+                    stopSearch();
+                    return false;
+                default:
+                    // Unknown commands and empty lines are ignored, as the protocol asks
+                    break;
+            }
+        } catch (IllegalArgumentException e) {
+            send("info string " + e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Handles "setoption name <name> value <value>"
+     */
+    private void setOption(String[] tokens) {
+        String name = null;
+        String value = null;
+        for (int i = 1; i < tokens.length - 1; i++) {
+            if (tokens[i].equals("name")) {
+                name = tokens[i + 1];
+            } else if (tokens[i].equals("value")) {
+                value = tokens[i + 1];
+            }
+        }
+        if (name == null || value == null) {
+            throw new IllegalArgumentException("Expected setoption name <name> value <value>");
+        }
+
+        switch (name.toLowerCase()) {
+            case "hash":
+                engine.setHashSize(clamp(Integer.parseInt(value), 1, MAX_HASH_MB));
+                break;
+            case "threads":
+                engine.setThreads(clamp(Integer.parseInt(value), 1, MAX_THREADS));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option: " + name);
+        }
+    }
+
+    /**
+     * Handles "position startpos|fen <fen> [moves <move> ...]"
+     */
+    private Position parsePosition(String[] tokens) {
+        int index = 1;
+        String fen;
+        if (tokens.length > 1 && tokens[1].equals("startpos")) {
+            fen = TranslateFen.getStartingPositionFen();
+            index = 2;
+        } else if (tokens.length > 1 && tokens[1].equals("fen")) {
+            StringBuilder builder = new StringBuilder();
+            for (index = 2; index < tokens.length && !tokens[index].equals("moves"); index++) {
+                builder.append(tokens[index]).append(' ');
+            }
+            fen = builder.toString().trim();
+        } else {
+            throw new IllegalArgumentException("Expected position startpos or position fen <fen>");
+        }
+
+        Position result = Position.fromFen(fen);
+        if (index < tokens.length && tokens[index].equals("moves")) {
+            MoveList moves = new MoveList();
+            for (index++; index < tokens.length; index++) {
+                result.makeMove(parseMove(result, tokens[index], moves));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the legal move matching a long algebraic move string (e.g., "e7e8q")
+     */
+    private static int parseMove(Position position, String text, MoveList moves) {
+        moves.clear();
+        MoveGenerator.generateLegalMoves(position, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (Move.toString(moves.get(i)).equals(text)) {
+                return moves.get(i);
+            }
+        }
+        throw new IllegalArgumentException("Illegal move: " + text);
+    }
+
+    /**
+     * Handles "go" and starts the search on its own thread
+     */
+    private void go(String[] tokens) {
+        SearchLimits limits = new SearchLimits();
+        boolean white = position.getSideToMove() == Position.WHITE;
+
+        for (int i = 1; i < tokens.length; i++) {
+            switch (tokens[i]) {
+                case "infinite":
+                    limits.setInfinite(true);
+                    break;
+                case "depth":
+                    limits.setDepth(Integer.parseInt(value(tokens, ++i)));
+                    break;
+                case "movetime":
+                    limits.setMoveTimeMillis(Long.parseLong(value(tokens, ++i)));
+                    break;
+                case "nodes":
+                    limits.setNodes(Long.parseLong(value(tokens, ++i)));
+                    break;
+                case "wtime":
+                case "btime":
+                    long time = Long.parseLong(value(tokens, i + 1));
+                    if (tokens[i].equals(white ? "wtime" : "btime")) {
+                        limits.setTimeMillis(time);
+                    }
+                    i++;
+                    break;
+                case "winc":
+                case "binc":
+                    long increment = Long.parseLong(value(tokens, i + 1));
+                    if (tokens[i].equals(white ? "winc" : "binc")) {
+                        limits.setIncrementMillis(increment);
+                    }
+                    i++;
+                    break;
+                case "movestogo":
+                    limits.setMovesToGo(Integer.parseInt(value(tokens, ++i)));
+                    break;
+                default:
+                    break;
+            }
+        }
+        Position root = new Position(position);
+        boolean infinite = limits.isInfinite();
+        stopRequested = false;
+        // Here rather than on the search thread, so a stop arriving before it runs is kept
+        engine.resetStop();
+        searchThread = new Thread(() -> search(root, limits, infinite), "uci-search");
+        searchThread.start();
+    }
+
+    /**
+     * Gets the value token of a "go" parameter
+     * @param tokens The command tokens
+     * @param index The index of the value, right after the parameter name
+     * @throws IllegalArgumentException If the command ends before the value
+     */
+    private static String value(String[] tokens, int index) {
+        if (index >= tokens.length) {
+            throw new IllegalArgumentException("Missing value for go " + tokens[index - 1]);
+        }
+        return tokens[index];
+    }
+
+    private void search(Position root, SearchLimits limits, boolean infinite) {
+        SearchResult result = engine.bestMove(root, limits, this::sendInfo);
+
+        // UCI forbids answering an infinite search before stop, even when it finished early
+        if (infinite) {
+            synchronized (this) {
+                while (!stopRequested) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+        }
+        send("bestmove " + Move.toString(result != null ? result.getBestMove() : Move.NONE));
+    }
+
+    private void sendInfo(SearchResult result) {
+        String score = result.isMateScore() ? "mate " + result.getMateInMoves() : "cp " + result.getScore();
+        send("info depth " + result.getDepth() + " score " + score + " nodes " + result.getNodes()
+            + " nps " + result.getNodesPerSecond() + " time " + result.getTimeMillis()
+            + " pv " + result.getPrincipalVariationString());
+    }
+
+    /**
+     * Stops a running search and waits for its bestmove to be sent
+     */
+    private void stopSearch() {
+        if (searchThread == null) {
+            return;
+        }
+        synchronized (this) {
+            stopRequested = true;
+            notifyAll();
+        }
+        engine.stop();
+
+        boolean interrupted = false;
+        while (searchThread.isAlive()) {
+            try {
+                searchThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        searchThread = null;
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void send(String message) {
+        synchronized (out) {
+            out.println(message);
+            out.flush();
+        }
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -1,13 +1,24 @@
 package com.chess.utils;
 
 import com.chess.board.Board;
-import com.chess.pieces.King;
+import com.chess.board.Move;
+import com.chess.board.MoveGenerator;
+import com.chess.board.MoveList;
+import com.chess.board.Position;
 import com.chess.pieces.Pawn;
 import com.chess.pieces.Piece;
 
 public class RuleHandler {
     
     private String currentEnPassantTarget = "-";
+    // The same target as a square index, parsed once when it is set
+    private int currentEnPassantSquare = Position.NO_SQUARE;
+
+    // Bitboard view of the last board checked, rebuilt only when the board changes
+    private Position position;
+    private Board positionBoard;
+    private int positionVersion;
+    private final MoveList moveBuffer = new MoveList();
     
     public boolean isMoveValid(Piece piece, int startCol, int startRow, int endCol, int endRow) {
         return piece.isLegalMove(startCol, startRow, endCol, endRow);
@@ -47,6 +58,49 @@ public class RuleHandler {
 
     public void setEnPassantTarget(String enPassantTarget) {
         this.currentEnPassantTarget = enPassantTarget != null ? enPassantTarget : "-";
+        this.currentEnPassantSquare = Position.parseSquare(currentEnPassantTarget);
+    }
+
+    /**
+     * Sets the en passant target by square index
+     * @param square The target square (Position numbering), or Position.NO_SQUARE
+     */
+    public void setEnPassantSquare(int square) {
+        this.currentEnPassantSquare = square;
+        this.currentEnPassantTarget = Position.squareToString(square);
+    }
+
+    public int getEnPassantSquare() {
+        return currentEnPassantSquare;
+    }
+
+    /**
+     * Finds the legal move matching a drag from one square to another
+     * Promotions resolve to a queen.
+     * @param board The current board state
+     * @param playerColor The color of the player moving
+     * @param startCol Starting column
+     * @param startRow Starting row
+     * @param endCol Ending column
+     * @param endRow Ending row
+     * @return The encoded move (see Move), or Move.NONE if it is not legal
+     */
+    public int findLegalMove(Board board, int playerColor, int startCol, int startRow, int endCol, int endRow) {
+        Position position = getPosition(board, playerColor);
+        int from = Position.square(startRow, startCol);
+        int to = Position.square(endRow, endCol);
+
+        moveBuffer.clear();
+        MoveGenerator.generateLegalMoves(position, moveBuffer);
+
+        // Promotions are generated queen first, so the first match is the one to play
+        for (int i = 0; i < moveBuffer.size(); i++) {
+            int move = moveBuffer.get(i);
+            if (Move.from(move) == from && Move.to(move) == to) {
+                return move;
+            }
+        }
+        return Move.NONE;
     }
 
     public String getEnPassantTarget() {
@@ -119,13 +173,14 @@ public class RuleHandler {
      * @return true if the king is in check
      */
     public boolean isKingInCheck(Board board, int kingColor) {
-        // Find the king's position
-        int[] kingPos = findKingPosition(board, kingColor);
-        if (kingPos == null) {
+        // The position tracks its king squares, so there is nothing to search for
+        Position position = getPosition(board, kingColor);
+        int kingSquare = position.getKingSquare(kingColor);
+        if (kingSquare == Position.NO_SQUARE) {
             return false; // King not found (shouldn't happen in normal game)
         }
 
-        return isSquareUnderAttack(board, kingPos[1], kingPos[0], kingColor);
+        return position.isSquareAttacked(kingSquare, Position.opposite(kingColor));
     }
 
     /**
@@ -137,95 +192,9 @@ public class RuleHandler {
      * @return true if the square is under attack by enemy pieces
      */
     public boolean isSquareUnderAttack(Board board, int col, int row, int friendlyColor) {
-        int enemyColor = (friendlyColor == 8) ? 16 : 8; // WHITE = 8, BLACK = 16
-
-        // Check all squares on the board for enemy pieces that can attack this square
-        for (int checkRow = 0; checkRow < 8; checkRow++) {
-            for (int checkCol = 0; checkCol < 8; checkCol++) {
-                Piece piece = board.getPiece(checkRow, checkCol);
-                
-                // Skip empty squares and friendly pieces
-                if (piece == null || piece.getColor() == 0 || piece.getColor() == friendlyColor) {
-                    continue;
-                }
-
-                // Check if this enemy piece can attack the target square
-                if (canPieceAttackSquare(piece, checkCol, checkRow, col, row, board)) {
-                    return true;
-                }
-            }
-        }
-
-        return false;
-    }
-
-    /**
-     * Checks if a piece can attack a specific square
-     * @param piece The attacking piece
-     * @param pieceCol The piece's column
-     * @param pieceRow The piece's row
-     * @param targetCol Target square column
-     * @param targetRow Target square row
-     * @param board The current board state
-     * @return true if the piece can attack the target square
-     */
-    private boolean canPieceAttackSquare(Piece piece, int pieceCol, int pieceRow, int targetCol, int targetRow, Board board) {
-        // Check if the piece can legally move to the target square
-        if (!piece.isLegalMove(pieceCol, pieceRow, targetCol, targetRow)) {
-            return false;
-        }
-
-        // For sliding pieces, check if path is clear
-        if (piece instanceof com.chess.pieces.Rook || 
-            piece instanceof com.chess.pieces.Bishop || 
-            piece instanceof com.chess.pieces.Queen) {
-            return isSlidingPiecePathClear(piece, pieceCol, pieceRow, targetCol, targetRow, board, true);
-        }
-
-        // Pawns have special attack patterns
-        if (piece instanceof Pawn) {
-            return isPawnAttackingSquare((Pawn) piece, pieceCol, pieceRow, targetCol, targetRow);
-        }
-
-        // Knights and Kings don't need path validation for attacks
-        return true;
-    }
-
-    /**
-     * Checks if a pawn is attacking a specific square
-     */
-    private boolean isPawnAttackingSquare(Pawn pawn, int pawnCol, int pawnRow, int targetCol, int targetRow) {
-        int colDiff = targetCol - pawnCol;
-        int rowDiff = targetRow - pawnRow;
-
-        // Pawns attack diagonally
-        if (Math.abs(colDiff) == 1) {
-            if (pawn.getColor() == 8 && rowDiff == -1) { // White pawn attacks up
-                return true;
-            } else if (pawn.getColor() == 16 && rowDiff == 1) { // Black pawn attacks down
-                return true;
-            }
-        }
-
-        return false;
-    }
-
-    /**
-     * Finds the position of a king on the board
-     * @param board The current board state
-     * @param kingColor The color of the king to find
-     * @return int array [row, col] of the king's position, or null if not found
-     */
-    private int[] findKingPosition(Board board, int kingColor) {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board.getPiece(row, col);
-                if (piece instanceof King && piece.getColor() == kingColor) {
-                    return new int[]{row, col};
-                }
-            }
-        }
-        return null;
+        // Attack table lookups on the bitboard view instead of testing every enemy piece
+        Position position = getPosition(board, friendlyColor);
+        return position.isSquareAttacked(Position.square(row, col), Position.opposite(friendlyColor));
     }
 
     /**
@@ -236,54 +205,41 @@ public class RuleHandler {
      * @param endCol Ending column
      * @param endRow Ending row
      * @param board The current board state
-     * @return true if the move is legal (doesn't leave king in check)
+     * @return true if the move would leave the king in check
      */
     public boolean doesMoveLeaveKingInCheck(Piece piece, int startCol, int startRow, int endCol, int endRow, Board board) {
-        // Make a temporary copy of the board to test the move
-        Board tempBoard = copyBoard(board);
-        
-        // Execute the move on the temporary board
-        Piece tempPiece = tempBoard.getPiece(startRow, startCol);
-        tempBoard.setPiece(endRow, endCol, tempPiece);
-        tempBoard.setPiece(startRow, startCol, new Piece(0, 0)); // Empty square
-
-        // Check if this move leaves the king in check
-        return isKingInCheck(tempBoard, piece.getColor());
-    }
-
-    /**
-     * Creates a deep copy of the board for move testing
-     */
-    private Board copyBoard(Board originalBoard) {
-        Board copy = new Board();
-        
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece originalPiece = originalBoard.getPiece(row, col);
-                if (originalPiece != null) {
-                    // Create a new piece of the same type and color
-                    Piece newPiece = createPieceCopy(originalPiece);
-                    copy.setPiece(row, col, newPiece);
-                }
-            }
+        int color = piece.getColor();
+        Position position = getPosition(board, color);
+
+        int from = Position.square(startRow, startCol);
+        int to = Position.square(endRow, endCol);
+        int captured = position.getPiece(to);
+        int flags = 0;
+        if (piece instanceof Pawn && startCol != endCol && to == currentEnPassantSquare && captured == Position.EMPTY) {
+            flags = Move.FLAG_EN_PASSANT;
+            captured = Position.opposite(color) | Position.PAWN;
         }
-        
-        return copy;
+        int move = Move.of(from, to, position.getPiece(from), captured, 0, flags);
+
+        // Check and pin masks decide without playing the move (except en passant)
+        return !MoveGenerator.isLegal(position, move);
     }
 
     /**
-     * Creates a copy of a piece
+     * Gets the bitboard view of a board, converting it only if it changed since the last call
+     * @param board The current board state
+     * @param sideToMove The color to move in the returned position
+     * @return The cached position
      */
-    private Piece createPieceCopy(Piece original) {
-        switch (original.getPIECE_TYPE()) {
-            case 1: return new Pawn(original.getColor());
-            case 2: return new com.chess.pieces.Rook(original.getColor());
-            case 3: return new com.chess.pieces.Knight(original.getColor());
-            case 4: return new com.chess.pieces.Bishop(original.getColor());
-            case 5: return new com.chess.pieces.Queen(original.getColor());
-            case 6: return new King(original.getColor());
-            default: return new Piece(original.getColor(), original.getPIECE_TYPE());
+    private Position getPosition(Board board, int sideToMove) {
+        if (position == null || positionBoard != board || positionVersion != board.getVersion()) {
+            position = Position.fromBoard(board, sideToMove, currentEnPassantSquare);
+            positionBoard = board;
+            positionVersion = board.getVersion();
         }
+        position.setSideToMove(sideToMove);
+        position.setEnPassantSquare(currentEnPassantSquare);
+        return position;
     }
 
     /**
@@ -374,51 +330,8 @@ public class RuleHandler {
      * @return true if the player has at least one legal move
      */
     public boolean hasAnyLegalMoves(Board board, int playerColor) {
-        // Check every piece of the player's color
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board.getPiece(row, col);
-                
-                // Skip empty squares and enemy pieces
-                if (piece == null || piece.getColor() != playerColor) {
-                    continue;
-                }
-
-                // Check all possible destination squares for this piece
-                if (pieceHasLegalMove(piece, col, row, board)) {
-                    return true; // Found at least one legal move
-                }
-            }
-        }
-
-        return false; // No legal moves found
-    }
-
-    /**
-     * Checks if a specific piece has any legal moves from its current position
-     * @param piece The piece to check
-     * @param pieceCol The piece's current column
-     * @param pieceRow The piece's current row
-     * @param board The current board state
-     * @return true if the piece has at least one legal move
-     */
-    private boolean pieceHasLegalMove(Piece piece, int pieceCol, int pieceRow, Board board) {
-        // Check all possible destination squares
-        for (int targetRow = 0; targetRow < 8; targetRow++) {
-            for (int targetCol = 0; targetCol < 8; targetCol++) {
-                // Skip the piece's current position
-                if (targetRow == pieceRow && targetCol == pieceCol) {
-                    continue;
-                }
-
-                // Check if this move would be legal
-                if (isMoveValid(piece, pieceCol, pieceRow, targetCol, targetRow, board, currentEnPassantTarget)) {
-                    return true; // Found a legal move
-                }
-            }
-        }
-
-        return false; // No legal moves for this piece
+        // Generate only the reachable squares of each piece instead of probing all 64 targets
+        return MoveGenerator.hasLegalMove(getPosition(board, playerColor), moveBuffer);
     }
 
     /**
@@ -1,8 +1,16 @@
 package com.chess.utils;
 
+import java.util.Arrays;
+
 import com.chess.board.Board;
+import com.chess.board.Move;
+import com.chess.board.Position;
 import com.chess.board.TranslateFen;
+import com.chess.pieces.Bishop;
+import com.chess.pieces.Knight;
 import com.chess.pieces.Piece;
+import com.chess.pieces.Queen;
+import com.chess.pieces.Rook;
 
 public class gameHandler {
     private final Board board;
@@ -21,10 +29,17 @@ public class gameHandler {
     
     // En passant state
     private String enPassantTarget = "-";
+    private int enPassantSquare = Position.NO_SQUARE;
     
     // Game state
     private boolean gameOver = false;
     private String gameResult = "";
+
+    // Session record for PGN export: the position the game started from (null until known
+    // after a reset) and every move since
+    private String startFen = TranslateFen.getStartingPositionFen();
+    private int[] moveHistory = new int[256];
+    private int moveCount = 0;
     
     // Constants for colors
     private static final int WHITE = 8;
@@ -45,7 +60,10 @@ public class gameHandler {
         gameResult = "";
         currentTurn = WHITE;
         enPassantTarget = "-";
+        enPassantSquare = Position.NO_SQUARE;
         ruleHandler.setEnPassantTarget(enPassantTarget);
+        startFen = currentFen();
+        moveCount = 0;
         
         // Check initial game state (shouldn't be checkmate/stalemate at start)
         checkGameState();
@@ -77,44 +95,39 @@ public class gameHandler {
             return;
         }
 
-        // Check if the move is valid (including en passant and check validation)
-        if (!ruleHandler.isMoveValid(startPiece, startCol, startRow, endCol, endRow, board, enPassantTarget)) {
+        // Look the move up among the legal moves (including en passant, castling and check validation)
+        int move = ruleHandler.findLegalMove(board, currentTurn, startCol, startRow, endCol, endRow);
+        if (move == Move.NONE) {
             System.out.println("Invalid move for piece type");
             return;
         }
 
-        // Check if trying to capture own piece
-        Piece endPiece = board.getPiece(endRow, endCol);
-        if (endPiece != null && endPiece.getColor() == currentTurn) {
-            return;
-        }
-
         // Make the move
+        recordMove(move);
 
-        // Check for en passant capture before moving
-        boolean isEnPassantCapture = false;
-        if (startPiece instanceof com.chess.pieces.Pawn) {
-            com.chess.pieces.Pawn pawn = (com.chess.pieces.Pawn) startPiece;
-            if (pawn.isEnPassantCapture(startCol, startRow, endCol, endRow, enPassantTarget)) {
-                isEnPassantCapture = true;
-                // Remove the captured pawn
-                int[] capturedPawnPos = com.chess.pieces.Pawn.getEnPassantCapturedPawnPosition(enPassantTarget);
-                if (capturedPawnPos != null) {
-                    board.setPiece(capturedPawnPos[0], capturedPawnPos[1], new Piece(EMPTY, 0));
-                    System.out.println("En passant capture! Removed pawn at (" + capturedPawnPos[1] + "," + capturedPawnPos[0] + ")");
-                }
-            }
+        // Remove the pawn captured en passant, which is not on the destination square
+        if (Move.isEnPassant(move)) {
+            int capturedRow = startRow;
+            board.setPiece(capturedRow, endCol, new Piece(EMPTY, 0));
+            System.out.println("En passant capture! Removed pawn at (" + endCol + "," + capturedRow + ")");
         }
-        
-        // Check if capturing a regular piece
-        if (!isEnPassantCapture && endPiece != null && endPiece.getColor() != EMPTY && endPiece.getColor() != currentTurn) {
-        }
-        
+
         // Execute the move
         board.movePiece(startRow, startCol, endRow, endCol);
-        
+
+        // Castling also moves the rook to the other side of the king
+        if (Move.isCastle(move)) {
+            int rookCol = endCol > startCol ? 7 : 0;
+            board.movePiece(startRow, rookCol, startRow, (startCol + endCol) / 2);
+        }
+
+        // Pawns reaching the last row are replaced by the promoted piece
+        if (Move.isPromotion(move)) {
+            board.setPiece(endRow, endCol, createPromotedPiece(Move.promotion(move)));
+        }
+
         // Update en passant target for next turn
-        updateEnPassantTarget(startPiece, startCol, startRow, endCol, endRow);
+        updateEnPassantTarget(move);
         
         // Switch turns
         currentTurn = (currentTurn == WHITE) ? BLACK : WHITE;
@@ -171,39 +184,39 @@ public class gameHandler {
 
     public void setEnPassantTarget(String enPassantTarget) {
         this.enPassantTarget = enPassantTarget != null ? enPassantTarget : "-";
+        this.enPassantSquare = Position.parseSquare(this.enPassantTarget);
         ruleHandler.setEnPassantTarget(this.enPassantTarget);
     }
 
     /**
      * Updates the en passant target square after a move
      */
-    private void updateEnPassantTarget(Piece movedPiece, int startCol, int startRow, int endCol, int endRow) {
-        // Reset en passant target by default
-        enPassantTarget = "-";
+    private void updateEnPassantTarget(int move) {
+        // Only a two square pawn push leaves a target, the square it passed over
+        enPassantSquare = Position.NO_SQUARE;
+        if (Move.isDoublePush(move)) {
+            enPassantSquare = (Move.from(move) + Move.to(move)) / 2;
+        }
 
-        // Check if a pawn moved two squares
-        if (movedPiece instanceof com.chess.pieces.Pawn) {
-            int rowDiff = Math.abs(endRow - startRow);
-            if (rowDiff == 2) {
-                // Pawn moved two squares, set en passant target
-                char file = (char) ('a' + endCol);
-                int rank;
-                
-                if (movedPiece.getColor() == WHITE) {
-                    // White pawn moved from rank 7 to rank 5, target is rank 6
-                    rank = 8 - endRow - 1; // Convert board row to chess rank
-                } else {
-                    // Black pawn moved from rank 2 to rank 4, target is rank 3  
-                    rank = 8 - endRow + 1; // Convert board row to chess rank
-                }
-                
-                enPassantTarget = "" + file + rank;
-                System.out.println("Pawn moved two squares, en passant target set to: " + enPassantTarget);
-            }
+        enPassantTarget = Position.squareToString(enPassantSquare);
+        if (enPassantSquare != Position.NO_SQUARE) {
+            System.out.println("Pawn moved two squares, en passant target set to: " + enPassantTarget);
         }
 
         // Update rule handler
-        ruleHandler.setEnPassantTarget(enPassantTarget);
+        ruleHandler.setEnPassantSquare(enPassantSquare);
+    }
+
+    /**
+     * Creates the piece a pawn promotes to
+     */
+    private Piece createPromotedPiece(int pieceType) {
+        switch (pieceType) {
+            case Position.ROOK: return new Rook(currentTurn);
+            case Position.KNIGHT: return new Knight(currentTurn);
+            case Position.BISHOP: return new Bishop(currentTurn);
+            default: return new Queen(currentTurn);
+        }
     }
 
     // Drag methods
@@ -333,6 +346,35 @@ public class gameHandler {
         }
     }
 
+    private void recordMove(int move) {
+        // After a reset the caller sets up the board afterwards, so the start is taken before the first move
+        if (startFen == null) {
+            startFen = currentFen();
+        }
+        if (moveCount == moveHistory.length) {
+            moveHistory = Arrays.copyOf(moveHistory, moveHistory.length * 2);
+        }
+        moveHistory[moveCount++] = move;
+    }
+
+    /**
+     * Gets the FEN of the position the session started from
+     */
+    public String getStartFen() {
+        return startFen != null ? startFen : currentFen();
+    }
+
+    private String currentFen() {
+        return Position.fromBoard(board, currentTurn, enPassantSquare).toFen();
+    }
+
+    /**
+     * Gets the moves played since the game was initialized, in order
+     */
+    public int[] getMoveHistory() {
+        return Arrays.copyOf(moveHistory, moveCount);
+    }
+
     /**
      * Checks if the game is over
      */
@@ -362,7 +404,10 @@ public class gameHandler {
         gameResult = "";
         currentTurn = WHITE;
         enPassantTarget = "-";
+        enPassantSquare = Position.NO_SQUARE;
         ruleHandler.setEnPassantTarget(enPassantTarget);
+        startFen = null;
+        moveCount = 0;
         
         // Reset board (caller should reinitialize pieces)
         System.out.println("Game reset! White to move.");
@@ -0,0 +1,36 @@
+package com.chess.board;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class FenCodecTest {
+
+    private final FenCodec codec = new FenCodec();
+
+    @Test
+    void parsesWhatTranslateFenParses() {
+        String[] fens = {
+            TranslateFen.getStartingPositionFen(),
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "4k3/8/8/8/8/8/8/4K3/ w - - 0 1",
+            "4k3/8/8/8/8/8/8/4K3// b - - 3 40",
+            "4k3/8/8/8/8/8/8/4K3/",
+            "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR\tb\tKQkq\te3 \t 0\t1",
+        };
+        Position position = new Position();
+        for (String fen : fens) {
+            codec.parse(fen, position);
+            String expected = Position.fromFenData(TranslateFen.translateFenComplete(fen.replaceAll("\\s+", " "))).toFen();
+            assertEquals(expected, position.toFen(), fen);
+        }
+    }
+
+    @Test
+    void rejectsWrongRowCount() {
+        Position position = new Position();
+        assertThrows(IllegalArgumentException.class, () -> codec.parse("4k3/8/8/8/8/8/8/4K3/8 w - - 0 1", position));
+        assertThrows(IllegalArgumentException.class, () -> codec.parse("4k3/8/8/8/8/8/4K3 w - - 0 1", position));
+    }
+}
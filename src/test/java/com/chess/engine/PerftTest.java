@@ -0,0 +1,37 @@
+package com.chess.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.chess.board.Position;
+import com.chess.board.TranslateFen;
+
+/**
+ * Move generation regression check: the perft reference positions at a shallow depth
+ * (the deeper suite runs with mvn -Pperft verify)
+ */
+class PerftTest {
+
+    private static final int MAX_DEPTH = 4;
+    // Largest expected count to run, keeps the whole check well under a second
+    private static final long MAX_NODES = 500_000L;
+
+    @Test
+    void referencePositions() {
+        Perft perft = new Perft();
+        for (Object[] reference : Perft.REFERENCE_POSITIONS) {
+            String name = (String) reference[0];
+            String fen = (String) reference[1];
+            long[] expected = (long[]) reference[2];
+
+            int depth = 1;
+            while (depth < MAX_DEPTH && depth < expected.length && expected[depth] <= MAX_NODES) {
+                depth++;
+            }
+
+            Position position = Position.fromFenData(TranslateFen.translateFenComplete(fen));
+            assertEquals(expected[depth - 1], perft.perft(position, depth), name + " depth " + depth);
+        }
+    }
+}
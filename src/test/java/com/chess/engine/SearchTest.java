@@ -0,0 +1,33 @@
+package com.chess.engine;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import org.junit.jupiter.api.Test;
+
+import com.chess.board.Move;
+import com.chess.board.Position;
+import com.chess.board.TranslateFen;
+
+class SearchTest {
+
+    @Test
+    void stoppedFirstIterationReportsNoMate() {
+        String[] fens = {
+            TranslateFen.getStartingPositionFen(),
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        };
+        Engine engine = new Engine();
+        for (String fen : fens) {
+            // Stopped before it starts, so the first root move is interrupted
+            engine.stop();
+            SearchResult result = engine.bestMove(Position.fromFenData(TranslateFen.translateFenComplete(fen)),
+                SearchLimits.depth(1));
+
+            assertNotNull(result, fen);
+            assertNotEquals(Move.NONE, result.getBestMove(), fen);
+            assertFalse(result.isMateScore(), fen + ": score " + result.getScore());
+        }
+    }
+}